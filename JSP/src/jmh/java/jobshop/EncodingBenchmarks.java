@@ -0,0 +1,78 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jobshop.encodings.JobNumbers;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import jobshop.solvers.EST_PriorityRule;
+import jobshop.solvers.GreedySolver;
+
+/**
+ * Benchmarks of the decoding of the encodings and of the analysis of a schedule.
+ * All of them work on the solution of the EST_LRPT greedy solver of each instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncodingBenchmarks {
+
+	/** The name of the instance, in the instances directory */
+	@Param({"ft10", "la40", "ta50", "ta80"})
+	public String instanceName;
+
+	private ResourceOrder order;
+	private JobNumbers jobNumbers;
+	private Schedule schedule;
+
+	@Setup
+	public void setup() throws IOException {
+		Instance instance = Instance.fromFile(Paths.get("instances", this.instanceName));
+		this.schedule = new GreedySolver(EST_PriorityRule.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule;
+		this.order = new ResourceOrder(this.schedule);
+		this.jobNumbers = JobNumbers.fromSchedule(this.schedule);
+	}
+
+	@Benchmark
+	public Schedule resourceOrderToSchedule() {
+		return this.order.toSchedule();
+	}
+
+	@Benchmark
+	public int resourceOrderMakespan() {
+		return this.order.makespan();
+	}
+
+	@Benchmark
+	public Schedule jobNumbersToSchedule() {
+		return this.jobNumbers.toSchedule();
+	}
+
+	@Benchmark
+	public List<Task> criticalPath() {
+		return this.schedule.criticalPath();
+	}
+
+	@Benchmark
+	public boolean isValid() {
+		return this.schedule.isValid();
+	}
+}
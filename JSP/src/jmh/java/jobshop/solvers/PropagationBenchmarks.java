@@ -0,0 +1,83 @@
+package jobshop.solvers;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * Benchmarks of the propagation of the heads and tails (see DisjunctivePropagation), in propagations per second.
+ * The upper bound is the makespan of the EST_LRPT greedy solution.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PropagationBenchmarks {
+
+	/** The name of the instance, in the instances directory (at most 64 jobs) */
+	@Param({"ft10", "la40", "ta50"})
+	public String instanceName;
+
+	private DisjunctivePropagation propagation;
+	private int upperBound;
+	/** The decision : a disjunction of the greedy solution, fixed the other way */
+	private int machine, first, second;
+
+	@Setup
+	public void setup() throws IOException {
+		Instance instance = Instance.fromFile(Paths.get("instances", this.instanceName));
+		ResourceOrder order = new ResourceOrder(new GreedySolver(EST_PriorityRule.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule);
+		this.upperBound = order.makespan();
+		this.propagation = new DisjunctivePropagation(instance);
+		this.propagation.setUpperBound(this.upperBound);
+		this.propagation.propagate();
+
+		// The first pair of adjacent tasks of the greedy solution which is not fixed by the root propagation
+		for (int m = 0; m < instance.numMachines; m++) {
+			for (int i = 0; i + 1 < instance.numJobs; i++) {
+				int u = instance.jobOf(order.taskAt(m, i));
+				int v = instance.jobOf(order.taskAt(m, i + 1));
+				if (((this.propagation.before(m, u) | this.propagation.after(m, u)) & (1L << v)) == 0) {
+					this.machine = m;
+					this.first = v;
+					this.second = u;
+					return;
+				}
+			}
+		}
+	}
+
+	/** The propagation of the root of a search : no disjunction is fixed */
+	@Benchmark
+	public boolean rootPropagation() {
+		this.propagation.reset();
+		this.propagation.setUpperBound(this.upperBound);
+		return this.propagation.propagate();
+	}
+
+	/** A decision of a search from the propagated root : a disjunction is fixed, propagated and undone */
+	@Benchmark
+	public boolean decision() {
+		int mark = this.propagation.mark();
+		boolean feasible = this.propagation.fix(this.machine, this.first, this.second) && this.propagation.propagate();
+		this.propagation.undo(mark);
+		return feasible;
+	}
+}
@@ -0,0 +1,112 @@
+package jobshop.solvers;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * Benchmarks of the solvers and of the steps of the local searches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SolverBenchmarks {
+
+	/** The name of the instance, in the instances directory */
+	@Param({"ft10", "la40", "ta50", "ta80"})
+	public String instanceName;
+
+	private Instance instance;
+	private GreedySolver greedy;
+	/** The solution of the EST_LRPT greedy solver, from which the local searches start */
+	private ResourceOrder order;
+	private HeadsTails headsTails;
+	/** A copy of the solution, with its heads and tails, on which a move is applied and undone */
+	private ResourceOrder moving;
+	private HeadsTails movingHeadsTails;
+	/** The move : the swap of the first two tasks of the first critical block */
+	private int moveMachine, moveIndex;
+
+	@Setup
+	public void setup() throws IOException {
+		this.instance = Instance.fromFile(Paths.get("instances", this.instanceName));
+		this.greedy = new GreedySolver(EST_PriorityRule.EST_LRPT);
+		this.order = new ResourceOrder(this.greedy.solve(this.instance, Long.MAX_VALUE).schedule);
+		this.headsTails = new HeadsTails(this.instance);
+		this.moving = this.order.copy();
+		this.movingHeadsTails = new HeadsTails(this.instance);
+		this.movingHeadsTails.compute(this.moving);
+		this.movingHeadsTails.criticalBlocks(this.moving);
+		this.moveMachine = this.movingHeadsTails.blockMachine(0);
+		this.moveIndex = this.movingHeadsTails.blockFirst(0);
+	}
+
+	@Benchmark
+	public Result greedySolve() {
+		return this.greedy.solve(this.instance, Long.MAX_VALUE);
+	}
+
+	/**
+	 * The work of one iteration of the TabooSolver on its first solution : heads and tails,
+	 * critical blocks and estimation of all the N5 neighbors (the taboo check and the move are not included)
+	 */
+	@Benchmark
+	public int tabooIteration() {
+		this.headsTails.compute(this.order);
+		int nbBlocks = this.headsTails.criticalBlocks(this.order);
+		int best = Integer.MAX_VALUE;
+		for (int b = 0; b < nbBlocks; b++) {
+			int machine = this.headsTails.blockMachine(b);
+			int first = this.headsTails.blockFirst(b);
+			int last = this.headsTails.blockLast(b);
+			best = Math.min(best, this.headsTails.estimateSwap(this.order, machine, first));
+			if (last - first > 1) {
+				best = Math.min(best, this.headsTails.estimateSwap(this.order, machine, last - 1));
+			}
+		}
+		return best;
+	}
+
+	/**
+	 * A move of the TabooSolver and its reverse move, with an incremental update of the heads and tails
+	 */
+	@Benchmark
+	public int incrementalMove() {
+		this.movingHeadsTails.applySwap(this.moving, this.moveMachine, this.moveIndex);
+		int makespan = this.movingHeadsTails.makespan();
+		this.movingHeadsTails.applySwap(this.moving, this.moveMachine, this.moveIndex);
+		return makespan;
+	}
+
+	/**
+	 * The same moves as incrementalMove, with the heads and tails computed again from scratch
+	 */
+	@Benchmark
+	public int fullMove() {
+		this.moving.swapTasks(this.moveMachine, this.moveIndex, this.moveIndex + 1);
+		this.movingHeadsTails.compute(this.moving);
+		int makespan = this.movingHeadsTails.makespan();
+		this.moving.swapTasks(this.moveMachine, this.moveIndex, this.moveIndex + 1);
+		this.movingHeadsTails.compute(this.moving);
+		return makespan;
+	}
+}
@@ -1,81 +1,141 @@
-package jobshop;
-
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.util.Iterator;
-import java.util.Scanner;
-import java.util.stream.Collectors;
-
-import jobshop.encodings.Task;
-
-public class Instance {
-
-    /** Number of jobs in the instance */
-    public final int numJobs;
-
-    /** Number of tasks per job */
-    public final int numTasks;
-
-    /** Number of machines, assumed to be same as number of tasks. */
-    public final int numMachines;
-
-    final int[][] durations;
-    final int[][] machines;
-    
-    public final Path path;
-
-    public int duration(int job, int task) {
-        return durations[job][task];
-    }
-    public int machine(int job, int task) {
-        return machines[job][task];
-    }
-
-    /** among the tasks of the given job, returns the task index that uses the given machine. */
-    public int task_with_machine(int job, int wanted_machine) {
-        for(int task = 0 ; task < numTasks ; task++) {
-            if(machine(job, task) == wanted_machine)
-                return task;
-        }
-        throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
-    }
-
-    Instance(int numJobs, int numTasks, Path pth) {
-        this.path = pth;
-		this.numJobs = numJobs;
-        this.numTasks = numTasks;
-        this.numMachines = numTasks;
-
-        durations = new int[numJobs][numTasks];
-        machines = new int[numJobs][numTasks];
-    }
-
-    public static Instance fromFile(Path path) throws IOException {
-        Iterator<String> lines = Files.readAllLines(path).stream()
-                .filter(l -> !l.startsWith("#"))
-                .collect(Collectors.toList())
-                .iterator();
-
-        Scanner header = new Scanner(lines.next());
-        int num_jobs = header.nextInt();
-        int num_tasks = header.nextInt();
-        Instance pb = new Instance(num_jobs, num_tasks, path);
-
-        for(int job = 0 ; job<num_jobs ; job++) {
-            Scanner line = new Scanner(lines.next());
-            for(int task = 0 ; task < num_tasks ; task++) {
-                pb.machines[job][task] = line.nextInt();
-                pb.durations[job][task] = line.nextInt();
-            }
-            line.close();
-        }
-
-        header.close();
- 
-        return pb;
-    }
-	public int machine(Task task) {
-		return this.machine(task.job, task.task);
-	}
-}
+package jobshop;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import jobshop.encodings.Task;
+
+public class Instance {
+
+    /** Number of jobs in the instance */
+    public final int numJobs;
+
+    /** Number of tasks per job */
+    public final int numTasks;
+
+    /** Number of machines, assumed to be same as number of tasks. */
+    public final int numMachines;
+
+    /** Duration of each task, indexed by task ID (job * numTasks + task) */
+    final int[] durations;
+    /** Machine of each task, indexed by task ID */
+    final int[] machines;
+
+    /** For each job and machine (index job * numMachines + machine), the index of the task of the job using the machine */
+    private final int[] taskWithMachine;
+    /** Sum of the durations of a task and of all the following tasks of its job, indexed by task ID */
+    private final int[] remainingWork;
+    /** Sum of the durations of all the tasks preceding a task in its job, indexed by task ID */
+    private final int[] processedWork;
+    
+    /** Lower bound of the makespan (see LowerBounds) */
+    private int lowerBound;
+
+    public final Path path;
+
+    public int duration(int job, int task) {
+        return durations[job * numTasks + task];
+    }
+    public int machine(int job, int task) {
+        return machines[job * numTasks + task];
+    }
+
+    /** Duration of the task with the given ID (see taskID). */
+    public int duration(int taskID) {
+        return durations[taskID];
+    }
+    /** Machine of the task with the given ID (see taskID). */
+    public int machine(int taskID) {
+        return machines[taskID];
+    }
+
+    /** Unique identifier of a task, between 0 and numJobs * numTasks - 1 (same as Task.getTaskID). */
+    public int taskID(int job, int task) {
+        return job * numTasks + task;
+    }
+    /** Job of the task with the given ID. */
+    public int jobOf(int taskID) {
+        return taskID / numTasks;
+    }
+    /** Index in its job of the task with the given ID. */
+    public int taskOf(int taskID) {
+        return taskID % numTasks;
+    }
+
+    /** among the tasks of the given job, returns the task index that uses the given machine. */
+    public int task_with_machine(int job, int wanted_machine) {
+        int task = taskWithMachine[job * numMachines + wanted_machine];
+        if(task < 0)
+            throw new RuntimeException("No task targeting machine "+wanted_machine+" on job "+job);
+        return task;
+    }
+
+    /** Sum of the durations of the given task and of all the following tasks of its job. */
+    public int remainingWork(int job, int task) {
+        return remainingWork[job * numTasks + task];
+    }
+    /** Sum of the durations of all the tasks preceding the given task in its job. */
+    public int processedWork(int job, int task) {
+        return processedWork[job * numTasks + task];
+    }
+
+    Instance(int numJobs, int numTasks, Path pth) {
+        this.path = pth;
+		this.numJobs = numJobs;
+        this.numTasks = numTasks;
+        this.numMachines = numTasks;
+
+        durations = new int[numJobs * numTasks];
+        machines = new int[numJobs * numTasks];
+        taskWithMachine = new int[numJobs * numMachines];
+        remainingWork = new int[numJobs * numTasks];
+        processedWork = new int[numJobs * numTasks];
+    }
+
+    /** Builds the lookup tables once the durations and machines of all tasks are known. */
+    void buildIndex() {
+        Arrays.fill(taskWithMachine, -1);
+        for(int job = 0 ; job < numJobs ; job++) {
+            int processed = 0;
+            for(int task = 0 ; task < numTasks ; task++) {
+                int id = taskID(job, task);
+                taskWithMachine[job * numMachines + machines[id]] = task;
+                processedWork[id] = processed;
+                processed += durations[id];
+            }
+            int remaining = 0;
+            for(int task = numTasks - 1 ; task >= 0 ; task--) {
+                int id = taskID(job, task);
+                remaining += durations[id];
+                remainingWork[id] = remaining;
+            }
+        }
+        lowerBound = LowerBounds.of(this);
+    }
+
+    /**
+     * A lower bound of the makespan of this instance (see LowerBounds) : a schedule reaching it is optimal,
+     * and a solver finding one can stop with Result.ExitCause.ProvedOptimal.
+     */
+    public int lowerBound() {
+        return lowerBound;
+    }
+
+    /** Reads an instance file (see InstanceReader for the accepted layouts). */
+    public static Instance fromFile(Path path) throws IOException {
+        return InstanceReader.read(path, false);
+    }
+
+    /**
+     * Reads an instance file, through its binary cache (the file name followed by ".bin") when it is
+     * up to date. Otherwise the cache is created, if the directory of the file is writable.
+     */
+    public static Instance fromFile(Path path, boolean useCache) throws IOException {
+        return InstanceReader.read(path, useCache);
+    }
+
+	public int machine(Task task) {
+		return this.machine(task.job, task.task);
+	}
+}
@@ -0,0 +1,356 @@
+package jobshop;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads instance files byte by byte from a memory-mapped buffer (no Scanner nor regular expression),
+ * directly into the flat arrays of the Instance.
+ * <br>
+ * <br>
+ * Two layouts are accepted :
+ * <ul>
+ * <li>the default one : a header line "numJobs numTasks" followed by one line per job,
+ * made of (machine, duration) pairs, the machines being numbered from 0 ;</li>
+ * <li>the one of the original Taillard files : a header line starting with "numJobs numMachines"
+ * (the following numbers of the line, seeds and bounds, are ignored), then the matrix of the durations
+ * and the matrix of the machines, numbered from 1. The matrices can be introduced by the labels
+ * "Times" and "Machines", otherwise the layout is recognized from the content of the lines.</li>
+ * </ul>
+ * Lines starting with '#' are comments, and words (such as "Nb of jobs, Nb of Machines") are ignored.
+ * <br>
+ * <br>
+ * A compact binary copy of an instance can be cached next to its file (same name followed by ".bin"),
+ * and it is used instead of the text file as long as the size and the modification time of the text file
+ * are the ones recorded in the cache. Its machines are checked as those of the text files.
+ */
+final class InstanceReader {
+
+    /** Suffix of the name of the binary cache of an instance file */
+    static final String CACHE_SUFFIX = ".bin";
+
+    /** First int of a cache file ("JSPB") */
+    private static final int CACHE_MAGIC = 0x4A535042;
+    /** Version of the layout of the cache files, to change whenever this layout changes */
+    private static final int CACHE_VERSION = 2;
+    /** Magic number, version, size and modification time of the text file (2 ints each), number of jobs and of tasks */
+    private static final int CACHE_HEADER_INTS = 8;
+
+    /** Value returned by readToken for a word */
+    private static final int NOT_A_NUMBER = Integer.MIN_VALUE;
+
+    /** The content of the file being read */
+    private final ByteBuffer buffer;
+    /** Position of the next byte to read */
+    private int pos;
+
+    /** Position (in number of ints read after the header) of the "Times" label, -1 if there is none */
+    private int timesLabel = -1;
+    /** Position (in number of ints read after the header) of the "Machines" label, -1 if there is none */
+    private int machinesLabel = -1;
+
+    private InstanceReader(ByteBuffer buffer) {
+        this.buffer = buffer;
+        this.pos = 0;
+    }
+
+    /**
+     * Reads an instance file.
+     * @param path The path of the instance file
+     * @param useCache whether to read the binary cache of the file if it is up to date,
+     *                 and to create it otherwise
+     */
+    static Instance read(Path path, boolean useCache) throws IOException {
+        if(!useCache)
+            return parse(path);
+
+        Path cache = path.resolveSibling(path.getFileName() + CACHE_SUFFIX);
+        if(Files.exists(cache)) {
+            Instance pb = readCache(cache, path);
+            if(pb != null)
+                return pb;
+        }
+
+        Instance pb = parse(path);
+        try {
+            writeCache(pb, path, cache);
+        } catch (IOException e) {
+            // the cache is only an optimization (e.g. the directory may be read-only)
+        }
+        return pb;
+    }
+
+    /** Maps a whole file in memory. */
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try(FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    /** Parses a text instance file. */
+    static Instance parse(Path path) throws IOException {
+        InstanceReader reader = new InstanceReader(map(path));
+
+        // header : the first line containing numbers
+        int[] header = new int[2];
+        while(reader.readLine(header) < 2) {
+            if(reader.pos >= reader.buffer.limit())
+                throw new IOException(path + ": no header line \"numJobs numTasks\"");
+        }
+        int numJobs = header[0];
+        int numTasks = header[1];
+        // labels before the header are meaningless
+        reader.timesLabel = -1;
+        reader.machinesLabel = -1;
+
+        int size = numJobs * numTasks;
+        int[] values = new int[2 * size];
+        int count = reader.readInts(values);
+        if(count < values.length)
+            throw new IOException(path + ": expected " + values.length + " numbers after the header but found " + count);
+
+        Instance pb = new Instance(numJobs, numTasks, path);
+        if(reader.timesLabel < 0 && reader.machinesLabel < 0 && isDefaultLayout(values, numJobs, numTasks)) {
+            for(int i = 0 ; i < size ; i++) {
+                pb.machines[i] = values[2 * i];
+                pb.durations[i] = values[2 * i + 1];
+            }
+        } else {
+            // Taillard layout : two matrices, the durations first unless the labels say otherwise
+            int timesStart = 0;
+            int machinesStart = size;
+            if(reader.machinesLabel >= 0 && reader.machinesLabel < size
+                    && (reader.timesLabel < 0 || reader.timesLabel > reader.machinesLabel)) {
+                timesStart = size;
+                machinesStart = 0;
+            }
+            // the machines of the Taillard files are numbered from 1
+            int offset = isMatrixFrom(values, machinesStart, numJobs, numTasks, 1) ? 1 : 0;
+            for(int i = 0 ; i < size ; i++) {
+                pb.durations[i] = values[timesStart + i];
+                pb.machines[i] = values[machinesStart + i] - offset;
+            }
+            if(offset == 0 && !isMatrixFrom(values, machinesStart, numJobs, numTasks, 0))
+                throw new IOException(path + ": each job should use each machine exactly once");
+        }
+
+        pb.buildIndex();
+        return pb;
+    }
+
+    /** Whether the values are (machine, duration) pairs, each job using each machine (numbered from 0) once. */
+    private static boolean isDefaultLayout(int[] values, int numJobs, int numTasks) {
+        boolean[] seen = new boolean[numTasks];
+        for(int job = 0 ; job < numJobs ; job++) {
+            Arrays.fill(seen, false);
+            for(int task = 0 ; task < numTasks ; task++) {
+                int machine = values[2 * (job * numTasks + task)];
+                if(machine < 0 || machine >= numTasks || seen[machine])
+                    return false;
+                seen[machine] = true;
+            }
+        }
+        return true;
+    }
+
+    /** Whether each line of the matrix starting at start is a permutation of first .. first + numTasks - 1. */
+    private static boolean isMatrixFrom(int[] values, int start, int numJobs, int numTasks, int first) {
+        boolean[] seen = new boolean[numTasks];
+        for(int job = 0 ; job < numJobs ; job++) {
+            Arrays.fill(seen, false);
+            for(int task = 0 ; task < numTasks ; task++) {
+                int machine = values[start + job * numTasks + task] - first;
+                if(machine < 0 || machine >= numTasks || seen[machine])
+                    return false;
+                seen[machine] = true;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads the numbers of the next line (skipping comment lines), and stores the first ones in out.
+     * @return The number of numbers found on the line (possibly more than out.length)
+     */
+    private int readLine(int[] out) throws IOException {
+        int limit = buffer.limit();
+        int count = 0;
+        boolean lineStart = true;
+        while(pos < limit) {
+            byte b = buffer.get(pos);
+            if(b == '\n') {
+                pos++;
+                if(count > 0)
+                    return count;
+                lineStart = true;
+            } else if(lineStart && b == '#') {
+                skipLine();
+            } else if(isSpace(b)) {
+                pos++;
+                lineStart = false;
+            } else {
+                lineStart = false;
+                int start = pos;
+                int value = readToken();
+                if(value != NOT_A_NUMBER) {
+                    if(count < out.length)
+                        out[count] = value;
+                    count++;
+                } else {
+                    checkLabel(start, count);
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Reads numbers until out is full or the end of the file, skipping comment lines and words.
+     * @return The number of numbers read
+     */
+    private int readInts(int[] out) throws IOException {
+        int limit = buffer.limit();
+        int count = 0;
+        boolean lineStart = true;
+        while(pos < limit && count < out.length) {
+            byte b = buffer.get(pos);
+            if(b == '\n') {
+                pos++;
+                lineStart = true;
+            } else if(lineStart && b == '#') {
+                skipLine();
+            } else if(isSpace(b)) {
+                pos++;
+                lineStart = false;
+            } else {
+                lineStart = false;
+                int start = pos;
+                int value = readToken();
+                if(value != NOT_A_NUMBER)
+                    out[count++] = value;
+                else
+                    checkLabel(start, count);
+            }
+        }
+        return count;
+    }
+
+    /** Reads a token (non-space bytes) and returns its value if it is an integer, NOT_A_NUMBER otherwise. */
+    private int readToken() throws IOException {
+        int limit = buffer.limit();
+        boolean negative = false;
+        boolean number = true;
+        boolean digits = false;
+        long value = 0;
+        if(buffer.get(pos) == '-') {
+            negative = true;
+            pos++;
+        }
+        while(pos < limit) {
+            byte b = buffer.get(pos);
+            if(isSpace(b) || b == '\n')
+                break;
+            if(b >= '0' && b <= '9') {
+                value = value * 10 + (b - '0');
+                digits = true;
+                if(value > Integer.MAX_VALUE)
+                    throw new IOException("number too large at byte " + pos);
+            } else {
+                number = false;
+            }
+            pos++;
+        }
+        if(!number || !digits)
+            return NOT_A_NUMBER;
+        return (int) (negative ? -value : value);
+    }
+
+    /** Records the position of the "Times" and "Machines" labels of the Taillard files. */
+    private void checkLabel(int start, int count) {
+        if(matches(start, "Times"))
+            timesLabel = count;
+        else if(matches(start, "Machines"))
+            machinesLabel = count;
+    }
+
+    /** Whether the word ending at pos and starting at start is the given one. */
+    private boolean matches(int start, String word) {
+        if(pos - start != word.length())
+            return false;
+        for(int i = 0 ; i < word.length() ; i++) {
+            if(buffer.get(start + i) != word.charAt(i))
+                return false;
+        }
+        return true;
+    }
+
+    private void skipLine() {
+        int limit = buffer.limit();
+        while(pos < limit && buffer.get(pos) != '\n')
+            pos++;
+    }
+
+    private static boolean isSpace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == ',';
+    }
+
+    /**
+     * Reads the binary cache of an instance.
+     * @param cache The path of the cache
+     * @param path The path of the instance file, kept in the Instance
+     * @return The instance, or null if the cache is not valid or not up to date
+     */
+    static Instance readCache(Path cache, Path path) throws IOException {
+        ByteBuffer bytes = map(cache);
+        if(bytes.remaining() < 4 * CACHE_HEADER_INTS || bytes.getInt() != CACHE_MAGIC || bytes.getInt() != CACHE_VERSION)
+            return null;
+        if(bytes.getLong() != Files.size(path) || bytes.getLong() != Files.getLastModifiedTime(path).toMillis())
+            return null;
+        int numJobs = bytes.getInt();
+        int numTasks = bytes.getInt();
+        IntBuffer ints = bytes.asIntBuffer();
+        if(numJobs <= 0 || numTasks <= 0 || ints.remaining() != 2L * numJobs * numTasks)
+            return null;
+
+        Instance pb = new Instance(numJobs, numTasks, path);
+        ints.get(pb.machines);
+        ints.get(pb.durations);
+        if(!isMatrixFrom(pb.machines, 0, numJobs, numTasks, 0))
+            return null;
+        pb.buildIndex();
+        return pb;
+    }
+
+    /**
+     * Writes the binary cache of an instance (through a temporary file, so that it is never seen incomplete).
+     * @param pb The instance, read from the text file path
+     * @param path The path of the instance file, whose size and modification time are recorded
+     * @param cache The path of the cache
+     */
+    static void writeCache(Instance pb, Path path, Path cache) throws IOException {
+        int size = pb.numJobs * pb.numTasks;
+        ByteBuffer bytes = ByteBuffer.allocate(4 * (CACHE_HEADER_INTS + 2 * size));
+        bytes.putInt(CACHE_MAGIC).putInt(CACHE_VERSION);
+        bytes.putLong(Files.size(path)).putLong(Files.getLastModifiedTime(path).toMillis());
+        bytes.putInt(pb.numJobs).putInt(pb.numTasks);
+        IntBuffer ints = bytes.asIntBuffer();
+        ints.put(pb.machines);
+        ints.put(pb.durations);
+
+        Path tmp = Files.createTempFile(cache.toAbsolutePath().getParent(), cache.getFileName().toString(), ".tmp");
+        try {
+            Files.write(tmp, bytes.array());
+            Files.move(tmp, cache, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(tmp);
+        }
+    }
+}
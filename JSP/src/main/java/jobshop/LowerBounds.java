@@ -0,0 +1,168 @@
+package jobshop;
+
+import java.util.Arrays;
+
+/**
+ * Lower bounds of the makespan of an instance : no schedule can be shorter, so a solver
+ * whose solution reaches the bound (see Instance.lowerBound) has proved that it is optimal.
+ * <ul>
+ * <li>the job bound : the total duration of the longest job ;</li>
+ * <li>the machine bound : the total duration of the tasks of the busiest machine, plus the shortest
+ * time before the first of them can start and after the last of them ends ;</li>
+ * <li>the one-machine (Jackson) bound : for each machine, the makespan of the optimal preemptive schedule
+ * of its tasks alone, each task being released at its head (the durations of the previous tasks of its job)
+ * and followed by its tail (the durations of the next tasks of its job).</li>
+ * </ul>
+ * The one-machine bound is always at least the machine bound, which is kept because it is trivial to check.
+ */
+public final class LowerBounds {
+
+    private LowerBounds() {}
+
+    /** The best of the lower bounds of the instance. */
+    public static int of(Instance instance) {
+        return Math.max(jobBound(instance), Math.max(machineBound(instance), oneMachineBound(instance)));
+    }
+
+    /** The total duration of the longest job. */
+    public static int jobBound(Instance instance) {
+        int bound = 0;
+        for(int job = 0 ; job < instance.numJobs ; job++)
+            bound = Math.max(bound, instance.remainingWork(job, 0));
+        return bound;
+    }
+
+    /** The load of the busiest machine, plus the smallest head and the smallest tail of its tasks. */
+    public static int machineBound(Instance instance) {
+        int bound = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            int load = 0;
+            int minHead = Integer.MAX_VALUE;
+            int minTail = Integer.MAX_VALUE;
+            for(int job = 0 ; job < instance.numJobs ; job++) {
+                int task = instance.task_with_machine(job, m);
+                int duration = instance.duration(job, task);
+                load += duration;
+                minHead = Math.min(minHead, instance.processedWork(job, task));
+                minTail = Math.min(minTail, instance.remainingWork(job, task) - duration);
+            }
+            bound = Math.max(bound, minHead + load + minTail);
+        }
+        return bound;
+    }
+
+    /**
+     * The best over all the machines of the preemptive one-machine bound, each task being released
+     * at its head (the durations of the previous tasks of its job) and followed by its tail.
+     */
+    public static int oneMachineBound(Instance instance) {
+        int numJobs = instance.numJobs;
+        int[] heads = new int[numJobs];
+        int[] durations = new int[numJobs];
+        int[] tails = new int[numJobs];
+        Jackson jackson = new Jackson(numJobs);
+
+        int bound = 0;
+        for(int m = 0 ; m < instance.numMachines ; m++) {
+            for(int job = 0 ; job < numJobs ; job++) {
+                int task = instance.task_with_machine(job, m);
+                heads[job] = instance.processedWork(job, task);
+                durations[job] = instance.duration(job, task);
+                tails[job] = instance.remainingWork(job, task) - durations[job];
+            }
+            bound = Math.max(bound, jackson.bound(numJobs, heads, durations, tails));
+        }
+        return bound;
+    }
+
+    /**
+     * The preemptive one-machine problem with heads and tails : Jackson's preemptive schedule (at any time,
+     * run the released task with the longest tail) is optimal for it, and its makespan max(end + tail) is
+     * a lower bound of the makespan of any schedule in which the tasks start after their heads and are
+     * followed by their tails. The buffers are kept from one computation to the other.
+     */
+    public static final class Jackson {
+        /** The tasks, as (head, task) sorted by head */
+        private final long[] byHead;
+        /** The remaining duration of each task */
+        private final int[] remaining;
+        /** The released and unfinished tasks, as a binary max-heap keyed by tail */
+        private final int[] heap;
+
+        /** @param maxTasks The maximum number of tasks of a problem */
+        public Jackson(int maxTasks) {
+            this.byHead = new long[maxTasks];
+            this.remaining = new int[maxTasks];
+            this.heap = new int[maxTasks];
+        }
+
+        /**
+         * @param n The number of tasks, numbered from 0 to n - 1
+         * @param heads The head of each task (non-negative)
+         * @param durations The duration of each task
+         * @param tails The tail of each task
+         * @return The makespan of Jackson's preemptive schedule of the tasks
+         */
+        public int bound(int n, int[] heads, int[] durations, int[] tails) {
+            for(int i = 0 ; i < n ; i++) {
+                remaining[i] = durations[i];
+                byHead[i] = ((long) heads[i] << 32) | i;
+            }
+            Arrays.sort(byHead, 0, n);
+
+            int bound = 0;
+            int time = 0;
+            int released = 0;
+            int heapSize = 0;
+            while(released < n || heapSize > 0) {
+                if(heapSize == 0)
+                    time = Math.max(time, heads[(int) byHead[released]]);
+                // release all the tasks whose head is reached
+                while(released < n && heads[(int) byHead[released]] <= time)
+                    heapSize = push(heap, heapSize, (int) byHead[released++], tails);
+                // run the task with the longest tail until it ends or the next task is released
+                int task = heap[0];
+                int until = released < n ? heads[(int) byHead[released]] : Integer.MAX_VALUE;
+                int run = (int) Math.min(remaining[task], (long) until - time);
+                time += run;
+                remaining[task] -= run;
+                if(remaining[task] == 0) {
+                    bound = Math.max(bound, time + tails[task]);
+                    heapSize = pop(heap, heapSize, tails);
+                }
+            }
+            return bound;
+        }
+    }
+
+    /** Adds a task to the max-heap keyed by tails, and returns the new size of the heap. */
+    private static int push(int[] heap, int size, int task, int[] tails) {
+        int i = size;
+        while(i > 0) {
+            int parent = (i - 1) / 2;
+            if(tails[heap[parent]] >= tails[task])
+                break;
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = task;
+        return size + 1;
+    }
+
+    /** Removes the first task of the max-heap keyed by tails, and returns the new size of the heap. */
+    private static int pop(int[] heap, int size, int[] tails) {
+        int last = heap[--size];
+        int i = 0;
+        while(2 * i + 1 < size) {
+            int child = 2 * i + 1;
+            if(child + 1 < size && tails[heap[child + 1]] > tails[heap[child]])
+                child++;
+            if(tails[heap[child]] <= tails[last])
+                break;
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+        return size;
+    }
+}
@@ -1,170 +1,286 @@
-package jobshop;
-
-import java.io.PrintStream;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.util.Arrays;
-import java.util.HashMap;
-import java.util.List;
-
-
-import jobshop.solvers.BasicSolver;
-import jobshop.solvers.DescentSolver;
-import jobshop.solvers.EST_PriorityRule;
-import jobshop.solvers.GreedySolver;
-import jobshop.solvers.PriorityRule;
-//import jobshop.solvers.PriorityRule;
-import jobshop.solvers.RandomSolver;
-import jobshop.solvers.TabooSolver;
-import net.sourceforge.argparse4j.ArgumentParsers;
-import net.sourceforge.argparse4j.inf.ArgumentParser;
-import net.sourceforge.argparse4j.inf.ArgumentParserException;
-import net.sourceforge.argparse4j.inf.Namespace;
-
-
-public class Main {
-
-    /** All solvers available in this program */
-    private static HashMap<String, Solver> solvers;
-    static {
-        solvers = new HashMap<>();
-        solvers.put("basic", new BasicSolver());
-        solvers.put("random", new RandomSolver());
-        // add new solvers here
-        solvers.put("greedy_spt", new GreedySolver(PriorityRule.SPT));
-        solvers.put("greedy_lpt", new GreedySolver(PriorityRule.LPT));
-        solvers.put("greedy_srpt", new GreedySolver(PriorityRule.SRPT));
-        solvers.put("greedy_lrpt", new GreedySolver(PriorityRule.LRPT));
-        
-        solvers.put("greedy_est_spt", new GreedySolver(EST_PriorityRule.EST_SPT));
-        solvers.put("greedy_est_lpt", new GreedySolver(EST_PriorityRule.EST_LPT));
-        solvers.put("greedy_est_srpt", new GreedySolver(EST_PriorityRule.EST_SRPT));
-        solvers.put("greedy_est_lrpt", new GreedySolver(EST_PriorityRule.EST_LRPT));
-        
-        solvers.put("descent_solver", new DescentSolver());
-        solvers.put("taboo_solver1", new TabooSolver(1, 1));
-        solvers.put("taboo_solver2", new TabooSolver(10, 3));
-        solvers.put("taboo_solver3", new TabooSolver(100, 5));
-        solvers.put("taboo_solver4", new TabooSolver(1000, 10));
-        solvers.put("taboo_solver5", new TabooSolver(5000, 10));
-        solvers.put("taboo_solver6", new TabooSolver(50000, 15));
-        /*la01 la02 la03 la04 la05 la06 la07 la08 la09 la10 la11 la12 la13
-          la14 la15 la16 la17 la18 la19 la20 la21 la22 la23 la24 la25 la26 
-          la27 la28 la29 la30 la31 la32 la33 la34 la35 la36 la37 la38 la39 la40*/
-    }
-
-
-    @SuppressWarnings("unused")
-	public static void main(String[] args) {
-        ArgumentParser parser = ArgumentParsers.newFor("jsp-solver").build()
-                .defaultHelp(true)
-                .description("Solves jobshop problems.");
-
-        parser.addArgument("-t", "--timeout")
-                .setDefault(1L)
-                .type(Long.class)
-                .help("Solver timeout in seconds for each instance");
-        parser.addArgument("--solver")
-                .nargs("+")
-                .required(true)
-                .help("Solver(s) to use (space separated if more than one)");
-
-        parser.addArgument("--instance")
-                .nargs("+")
-                .required(true)
-                .help("Instance(s) to solve (space separated if more than one)");
-
-        Namespace ns = null;
-        try {
-            ns = parser.parseArgs(args);
-        } catch (ArgumentParserException e) {
-            parser.handleError(e);
-            System.exit(1);
-        }
-
-        PrintStream output = System.out;
-
-        long solveTimeMs = ns.getLong("timeout") * 1000;
-
-        List<String> solversToTest = ns.getList("solver");
-        for(String solverName : solversToTest) {
-            if(!solvers.containsKey(solverName)) {
-                System.err.println("ERROR: Solver \"" + solverName + "\" is not avalaible.");
-                System.err.println("       Available solvers: " + solvers.keySet().toString());
-                System.err.println("       You can provide your own solvers by adding them to the `Main.solvers` HashMap.");
-                System.exit(1);
-            }
-        }
-        List<String> instances = ns.<String>getList("instance");
-        for(String instanceName : instances) {
-            if(!BestKnownResult.isKnown(instanceName)) {
-                System.err.println("ERROR: instance \"" + instanceName + "\" is not avalaible.");
-                System.err.println("       available instances: " + Arrays.toString(BestKnownResult.instances));
-                System.exit(1);
-            }
-        }
-
-        float[] runtimes = new float[solversToTest.size()];
-        float[] distances = new float[solversToTest.size()];
-
-        try {
-            output.print(  "                         ");;
-            for(String s : solversToTest)
-                output.printf("%-30s", s);
-            output.println();
-            output.print("instance size  best      ");
-            for(String s : solversToTest) {
-                output.print("runtime makespan ecart        ");
-            }
-            output.println();
-
-
-        for(String instanceName : instances) {
-            int bestKnown = BestKnownResult.of(instanceName);
-
-
-            Path path = Paths.get("instances/", instanceName);
-            Instance instance = Instance.fromFile(path);
-
-            output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
-
-            for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
-                String solverName = solversToTest.get(solverId);
-                Solver solver = solvers.get(solverName);
-                long start = System.currentTimeMillis();
-                long deadline = System.currentTimeMillis() + solveTimeMs;
-                Result result = solver.solve(instance, deadline);
-                long runtime = System.currentTimeMillis() - start;
-
-                if(!result.schedule.isValid()) {
-                    System.err.println("ERROR: solver returned an invalid schedule");
-                    System.exit(1);
-                }
-
-                assert result.schedule.isValid();
-                int makespan = result.schedule.makespan();
-                float dist = 100f * (makespan - bestKnown) / (float) bestKnown;
-                runtimes[solverId] += (float) runtime / (float) instances.size();
-                distances[solverId] += dist / (float) instances.size();
-
-                output.printf("%7d %8s %5.1f        ", runtime, makespan, dist);
-                output.flush();
-            }
-            output.println();
-
-        }
-
-
-        output.printf("%-8s %-5s %4s      ", "AVG", "-", "-");
-        for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
-            output.printf("%7.1f %8s %5.1f        ", runtimes[solverId], "-", distances[solverId]);
-        }
-
-
-
-        } catch (Exception e) {
-            e.printStackTrace();
-            System.exit(1);
-        }
-    }
-}
+package jobshop;
+
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+
+import jobshop.solvers.BasicSolver;
+import jobshop.solvers.BranchAndBoundSolver;
+import jobshop.solvers.DescentSolver;
+import jobshop.solvers.EST_PriorityRule;
+import jobshop.solvers.GifflerThompsonSolver;
+import jobshop.solvers.GraspSolver;
+import jobshop.solvers.GreedySolver;
+import jobshop.solvers.IslandTabooSolver;
+import jobshop.solvers.PortfolioSolver;
+import jobshop.solvers.PriorityRule;
+//import jobshop.solvers.PriorityRule;
+import jobshop.solvers.RandomSolver;
+import jobshop.solvers.ShiftingBottleneckSolver;
+import jobshop.solvers.SimulatedAnnealingSolver;
+import jobshop.solvers.TabooSolver;
+import net.sourceforge.argparse4j.ArgumentParsers;
+import net.sourceforge.argparse4j.impl.Arguments;
+import net.sourceforge.argparse4j.inf.ArgumentParser;
+import net.sourceforge.argparse4j.inf.ArgumentParserException;
+import net.sourceforge.argparse4j.inf.Namespace;
+
+
+public class Main {
+
+    /** All solvers available in this program (see createSolvers) */
+    private static HashMap<String, Solver> solvers;
+
+    /**
+     * Creates all the solvers available in this program.
+     * @param cores The number of threads of the solvers that work on several threads
+     */
+    private static HashMap<String, Solver> createSolvers(int cores) {
+        HashMap<String, Solver> solvers = new HashMap<>();
+        solvers.put("basic", new BasicSolver());
+        solvers.put("random", new RandomSolver());
+        // add new solvers here
+        solvers.put("greedy_spt", new GreedySolver(PriorityRule.SPT));
+        solvers.put("greedy_lpt", new GreedySolver(PriorityRule.LPT));
+        solvers.put("greedy_srpt", new GreedySolver(PriorityRule.SRPT));
+        solvers.put("greedy_lrpt", new GreedySolver(PriorityRule.LRPT));
+        
+        solvers.put("greedy_est_spt", new GreedySolver(EST_PriorityRule.EST_SPT));
+        solvers.put("greedy_est_lpt", new GreedySolver(EST_PriorityRule.EST_LPT));
+        solvers.put("greedy_est_srpt", new GreedySolver(EST_PriorityRule.EST_SRPT));
+        solvers.put("greedy_est_lrpt", new GreedySolver(EST_PriorityRule.EST_LRPT));
+        
+        solvers.put("gt_spt", new GifflerThompsonSolver(PriorityRule.SPT));
+        solvers.put("gt_lpt", new GifflerThompsonSolver(PriorityRule.LPT));
+        solvers.put("gt_srpt", new GifflerThompsonSolver(PriorityRule.SRPT));
+        solvers.put("gt_lrpt", new GifflerThompsonSolver(PriorityRule.LRPT));
+        solvers.put("gt_est_lrpt", new GifflerThompsonSolver(EST_PriorityRule.EST_LRPT));
+        
+        // randomized constructions on all the cores given to the solvers
+        solvers.put("grasp_lrpt", new GraspSolver(PriorityRule.LRPT, 0.2, cores, 0));
+        
+        // the machines are sequenced one by one, each one being sequenced again up to 3 times after each bottleneck
+        solvers.put("shifting_bottleneck", new ShiftingBottleneckSolver(3));
+        solvers.put("descent_solver", new DescentSolver());
+        solvers.put("descent_sb", new DescentSolver(new ShiftingBottleneckSolver(3)));
+        solvers.put("taboo_islands", new IslandTabooSolver(cores, 12, 1000, 0));
+        solvers.put("portfolio", new PortfolioSolver(PortfolioSolver.defaultConfigurations(),
+                cores, 5000, 0));
+        // exact method, on all the cores given to the solvers, its upper bound is seeded by 20000 taboo iterations
+        solvers.put("branch_and_bound", new BranchAndBoundSolver(cores, 20000));
+        solvers.put("taboo_solver1", new TabooSolver(1, 1));
+        solvers.put("taboo_solver2", new TabooSolver(10, 3));
+        solvers.put("taboo_solver3", new TabooSolver(100, 5));
+        solvers.put("taboo_solver4", new TabooSolver(1000, 10));
+        solvers.put("taboo_solver5", new TabooSolver(5000, 10));
+        solvers.put("taboo_solver6", new TabooSolver(50000, 15));
+        // instance-driven tenure range, aspiration and restarts from the best solution after 50000 iterations without improvement
+        solvers.put("taboo_adaptive", TabooSolver.adaptive(Integer.MAX_VALUE, 50000, 0));
+        // time-based cooling from the shifting bottleneck solution, the temperatures are relative to the average duration
+        solvers.put("annealing", new SimulatedAnnealingSolver(new ShiftingBottleneckSolver(3), 1.0, 0.05, 0));
+        solvers.put("taboo_adaptive_sb", TabooSolver.adaptive(Integer.MAX_VALUE, 50000, 0, new ShiftingBottleneckSolver(3)));
+        // exact evaluation of the neighbors, on all the cores given to the solvers
+        solvers.put("taboo_solver6_exact", new TabooSolver(50000, 15, cores));
+        /*la01 la02 la03 la04 la05 la06 la07 la08 la09 la10 la11 la12 la13
+          la14 la15 la16 la17 la18 la19 la20 la21 la22 la23 la24 la25 la26 
+          la27 la28 la29 la30 la31 la32 la33 la34 la35 la36 la37 la38 la39 la40*/
+        return solvers;
+    }
+
+
+    /** The result of one solver on one instance, with the time it took */
+    private static class Cell {
+        final Result result;
+        /** wall-clock runtime in milliseconds */
+        final long runtime;
+
+        Cell(Result result, long runtime) {
+            this.result = result;
+            this.runtime = runtime;
+        }
+    }
+
+    /**
+     * Solves an instance with a solver, the deadline starting when this method is called
+     * (and not when the cell was submitted to the pool).
+     */
+    private static Cell solveCell(Solver solver, Instance instance, long solveTimeMs) {
+        long start = System.currentTimeMillis();
+        long deadline = start + solveTimeMs;
+        Result result = solver.solve(instance, deadline);
+        return new Cell(result, System.currentTimeMillis() - start);
+    }
+
+    @SuppressWarnings("unused")
+	public static void main(String[] args) {
+        ArgumentParser parser = ArgumentParsers.newFor("jsp-solver").build()
+                .defaultHelp(true)
+                .description("Solves jobshop problems.");
+
+        parser.addArgument("-t", "--timeout")
+                .setDefault(1L)
+                .type(Long.class)
+                .help("Solver timeout in seconds for each instance");
+        parser.addArgument("--threads")
+                .setDefault(1)
+                .type(Integer.class)
+                .help("Number of (instance, solver) cells solved in parallel. "
+                        + "The cores are split between the cells : the multi-threaded solvers get cores / threads threads each");
+        parser.addArgument("--cache")
+                .action(Arguments.storeTrue())
+                .help("Read the instances from their binary cache (instances/<name>.bin), "
+                        + "created or updated from the instance files when needed");
+        parser.addArgument("--solver")
+                .nargs("+")
+                .required(true)
+                .help("Solver(s) to use (space separated if more than one)");
+
+        parser.addArgument("--instance")
+                .nargs("+")
+                .required(true)
+                .help("Instance(s) to solve (space separated if more than one)");
+
+        Namespace ns = null;
+        try {
+            ns = parser.parseArgs(args);
+        } catch (ArgumentParserException e) {
+            parser.handleError(e);
+            System.exit(1);
+        }
+
+        PrintStream output = System.out;
+
+        long solveTimeMs = ns.getLong("timeout") * 1000;
+        boolean useCache = ns.getBoolean("cache");
+        int threads = ns.getInt("threads");
+        if(threads < 1) {
+            System.err.println("ERROR: the number of threads must be positive.");
+            System.exit(1);
+        }
+        // the cores are split between the cells solved in parallel, instead of each cell starting a pool on all of
+        // them, so that the wall-clock runtimes and time limits are not distorted by an oversubscribed machine
+        int cores = Math.max(1, Runtime.getRuntime().availableProcessors() / threads);
+        solvers = createSolvers(cores);
+
+        List<String> solversToTest = ns.getList("solver");
+        for(String solverName : solversToTest) {
+            if(!solvers.containsKey(solverName)) {
+                System.err.println("ERROR: Solver \"" + solverName + "\" is not avalaible.");
+                System.err.println("       Available solvers: " + solvers.keySet().toString());
+                System.err.println("       You can provide your own solvers by adding them to the `Main.solvers` HashMap.");
+                System.exit(1);
+            }
+        }
+        List<String> instances = ns.<String>getList("instance");
+        for(String instanceName : instances) {
+            if(!BestKnownResult.isKnown(instanceName)) {
+                System.err.println("ERROR: instance \"" + instanceName + "\" is not avalaible.");
+                System.err.println("       available instances: " + Arrays.toString(BestKnownResult.instances));
+                System.exit(1);
+            }
+        }
+
+        float[] runtimes = new float[solversToTest.size()];
+        float[] distances = new float[solversToTest.size()];
+        // the number of moves per second of the local searches which report it
+        float[] movesPerSecond = new float[solversToTest.size()];
+        boolean movesReported = false;
+
+        try {
+            output.print(  "                         ");;
+            for(String s : solversToTest)
+                output.printf("%-30s", s);
+            output.println();
+            output.print("instance size  best      ");
+            for(String s : solversToTest) {
+                output.print("runtime makespan ecart        ");
+            }
+            output.println();
+
+
+        // all the cells are submitted at once, in the order of the table, and their
+        // results are then printed in that order whatever the order in which they end
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        List<Instance> loaded = new ArrayList<>();
+        List<List<Future<Cell>>> cells = new ArrayList<>();
+        for(String instanceName : instances) {
+            Path path = Paths.get("instances/", instanceName);
+            Instance instance = Instance.fromFile(path, useCache);
+            loaded.add(instance);
+
+            List<Future<Cell>> row = new ArrayList<>();
+            for(String solverName : solversToTest) {
+                Solver solver = solvers.get(solverName);
+                row.add(pool.submit(() -> solveCell(solver, instance, solveTimeMs)));
+            }
+            cells.add(row);
+        }
+        pool.shutdown();
+
+        for(int instanceId = 0 ; instanceId < instances.size() ; instanceId++) {
+            String instanceName = instances.get(instanceId);
+            Instance instance = loaded.get(instanceId);
+            int bestKnown = BestKnownResult.of(instanceName);
+
+            output.printf("%-8s %-5s %4d      ",instanceName, instance.numJobs +"x"+instance.numTasks, bestKnown);
+
+            for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+                Cell cell = cells.get(instanceId).get(solverId).get();
+                Result result = cell.result;
+                long runtime = cell.runtime;
+
+                String violation = result.schedule.findViolation();
+                if(violation != null) {
+                    System.err.println("ERROR: solver returned an invalid schedule ("+violation+")");
+                    System.exit(1);
+                }
+
+                int makespan = result.schedule.makespan();
+                float dist = 100f * (makespan - bestKnown) / (float) bestKnown;
+                runtimes[solverId] += (float) runtime / (float) instances.size();
+                distances[solverId] += dist / (float) instances.size();
+                movesPerSecond[solverId] += (float) result.movesPerSecond / (float) instances.size();
+                movesReported |= result.moves > 0;
+
+                output.printf("%7d %8s %5.1f        ", runtime, makespan, dist);
+                output.flush();
+            }
+            output.println();
+
+        }
+
+
+        output.printf("%-8s %-5s %4s      ", "AVG", "-", "-");
+        for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+            output.printf("%7.1f %8s %5.1f        ", runtimes[solverId], "-", distances[solverId]);
+        }
+        output.println();
+
+        // only when one of the solvers is a local search reporting its moves
+        if(movesReported) {
+            output.printf("%-8s %-5s %4s      ", "MOVES/S", "-", "-");
+            for(int solverId = 0 ; solverId < solversToTest.size() ; solverId++) {
+                if(movesPerSecond[solverId] > 0)
+                    output.printf("%-30.0f", movesPerSecond[solverId]);
+                else
+                    output.printf("%-30s", "-");
+            }
+            output.println();
+        }
+
+
+
+        } catch (Exception e) {
+            e.printStackTrace();
+            System.exit(1);
+        }
+    }
+}
@@ -1,23 +1,38 @@
-package jobshop;
-
-import java.util.Optional;
-
-@SuppressWarnings("unused")
-public class Result {
-
-    public Result(Instance instance, Schedule schedule, ExitCause cause) {
-        this.instance = instance;
-        this.schedule = schedule;
-        this.cause = cause;
-    }
-
-    public enum ExitCause {
-        Timeout, ProvedOptimal, Blocked
-    }
-
-    public final Instance instance;
-    public final Schedule schedule;
-    public final ExitCause cause;
-
-
-}
+package jobshop;
+
+import java.util.Optional;
+
+@SuppressWarnings("unused")
+public class Result {
+
+    public Result(Instance instance, Schedule schedule, ExitCause cause) {
+        this(instance, schedule, cause, 0, 0);
+    }
+
+    /**
+     * The result of a local search which reports the number of moves it has evaluated.
+     * @param moves The number of moves evaluated
+     * @param movesPerSecond The number of moves evaluated per second of search
+     */
+    public Result(Instance instance, Schedule schedule, ExitCause cause, long moves, double movesPerSecond) {
+        this.instance = instance;
+        this.schedule = schedule;
+        this.cause = cause;
+        this.moves = moves;
+        this.movesPerSecond = movesPerSecond;
+    }
+
+    public enum ExitCause {
+        Timeout, ProvedOptimal, Blocked
+    }
+
+    public final Instance instance;
+    public final Schedule schedule;
+    public final ExitCause cause;
+    /** The number of moves evaluated by the solver, 0 if it does not report it */
+    public final long moves;
+    /** The number of moves evaluated per second, 0 if the solver does not report it */
+    public final double movesPerSecond;
+
+
+}
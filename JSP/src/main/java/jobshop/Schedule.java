@@ -1,154 +1,167 @@
-package jobshop;
-
-
-import java.util.Arrays;
-import java.util.Comparator;
-import java.util.LinkedList;
-import java.util.List;
-import java.util.Optional;
-import java.util.stream.IntStream;
-
-import jobshop.encodings.Task;
-
-public class Schedule {
-    public final Instance pb;
-    // start times of each job and task
-    // times[j][i] is the start time of task (j,i) : i^th task of the j^th job
-    final int[][] times;
-
-    public Schedule(Instance pb, int[][] times) {
-        this.pb = pb;
-        this.times = new int[pb.numJobs][];
-        for(int j = 0 ; j < pb.numJobs ; j++) {
-            this.times[j] = Arrays.copyOf(times[j], pb.numTasks);
-        }
-    }
-
-    public int startTime(int job, int task) {
-        return times[job][task];
-    }
-
-    /** Returns true if this schedule is valid (no constraint is violated) */
-    public boolean isValid() {
-        for(int j = 0 ; j<pb.numJobs ; j++) {
-            for(int t = 1 ; t<pb.numTasks ; t++) {
-                if(startTime(j, t-1) + pb.duration(j, t-1) > startTime(j, t))
-                    return false;
-            }
-            for(int t = 0 ; t<pb.numTasks ; t++) {
-                if(startTime(j, t) < 0)
-                    return false;
-            }
-        }
-
-        for (int machine = 0 ; machine < pb.numMachines ; machine++) {
-            for(int j1=0 ; j1<pb.numJobs ; j1++) {
-                int t1 = pb.task_with_machine(j1, machine);
-                for(int j2=j1+1 ; j2<pb.numJobs ; j2++) {
-                    int t2 = pb.task_with_machine(j2, machine);
-
-                    boolean t1_first = startTime(j1, t1) + pb.duration(j1, t1) <= startTime(j2, t2);
-                    boolean t2_first = startTime(j2, t2) + pb.duration(j2, t2) <= startTime(j1, t1);
-
-                    if(!t1_first && !t2_first)
-                        return false;
-                }
-            }
-        }
-
-        return true;
-    }
-
-    public int makespan() {
-        int max = -1;
-        for(int j = 0 ; j<pb.numJobs ; j++) {
-            max = Math.max(max, startTime(j, pb.numTasks-1) + pb.duration(j, pb.numTasks -1));
-        }
-        return max;
-    }
-    
-    public int startTime(Task task) {
-        return startTime(task.job, task.task);
-    }
-
-    public int endTime(Task task) {
-        return startTime(task) + pb.duration(task.job, task.task);
-    }
-    
-    public boolean isCriticalPath(List<Task> path) {
-        if(startTime(path.get(0)) != 0) {
-            return false;
-        }
-        if(endTime(path.get(path.size()-1)) != makespan()) {
-            return false;
-        }
-        for(int i=0 ; i<path.size()-1 ; i++) {
-            if(endTime(path.get(i)) != startTime(path.get(i+1)))
-                return false;
-        }
-        return true;
-    }
-
-    public List<Task> criticalPath() {
-        // select task with greatest end time
-        Task ldd = IntStream.range(0, pb.numJobs)
-                .mapToObj(j -> new Task(j, pb.numTasks-1))
-                .max(Comparator.comparing(this::endTime))
-                .get();
-        assert endTime(ldd) == makespan();
-
-        // list that will contain the critical path.
-        // we construct it from the end, starting with the
-        // task that finishes last
-        LinkedList<Task> path = new LinkedList<>();
-        path.add(0,ldd);
-
-        // keep adding tasks to the path until the first task in the path
-        // starts a time 0
-        while(startTime(path.getFirst()) != 0) {
-            Task cur = path.getFirst();
-            int machine = pb.machine(cur.job, cur.task);
-
-            // will contain the task that was delaying the start
-            // of our current task
-            Optional<Task> latestPredecessor = Optional.empty();
-
-            if(cur.task > 0) {
-                // our current task has a predecessor on the job
-                Task predOnJob = new Task(cur.job, cur.task -1);
-
-                // if it was the delaying task, save it to predecessor
-                if(endTime(predOnJob) == startTime(cur))
-                    latestPredecessor = Optional.of(predOnJob);
-            }
-            if(!latestPredecessor.isPresent()) {
-                // no latest predecessor found yet, look among tasks executing on the same machine
-                latestPredecessor = IntStream.range(0, pb.numJobs)
-                        .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine)))
-                        .filter(t -> endTime(t) == startTime(cur))
-                        .findFirst();
-            }
-            // at this point we should have identified a latest predecessor, either on the job or on the machine
-            assert latestPredecessor.isPresent() && endTime(latestPredecessor.get()) == startTime(cur);
-            // insert predecessor at the beginning of the path
-            path.add(0, latestPredecessor.get());
-        }
-        assert isCriticalPath(path);
-        return path;
-    }
-
-    public Schedule copy() {
-        return new Schedule(this.pb, this.times);
-    }
-    
-    public String toString() {
-    	String res = "";
-    	for (int i = 0; i < this.times.length; i++) {
-    		res += "Job " + Integer.toString(i + 1) + " starting times : \n";
-    		for (int j = 0; j < this.times[i].length; j++) {
-    			res += "\tTask " + Integer.toString(j + 1) + " starts at time : " + Integer.toString(this.times[i][j]) + "\n";
-    		}
-    	}
-    	return res;
-    }
-}
+package jobshop;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import jobshop.encodings.Task;
+
+public class Schedule {
+    public final Instance pb;
+    // start times of each job and task
+    // times[j][i] is the start time of task (j,i) : i^th task of the j^th job
+    final int[][] times;
+
+    public Schedule(Instance pb, int[][] times) {
+        this.pb = pb;
+        this.times = new int[pb.numJobs][];
+        for(int j = 0 ; j < pb.numJobs ; j++) {
+            this.times[j] = Arrays.copyOf(times[j], pb.numTasks);
+        }
+    }
+
+    public int startTime(int job, int task) {
+        return times[job][task];
+    }
+
+    /** Returns true if this schedule is valid (no constraint is violated) */
+    public boolean isValid() {
+        return findViolation() == null;
+    }
+
+    /**
+     * Looks for a constraint violated by this schedule.
+     * The tasks of each machine are sorted by start time, so that only consecutive tasks
+     * have to be checked for overlaps : O(numMachines * numJobs * log(numJobs)).
+     * The tasks with a zero duration do not use their machine, and are not checked for overlaps.
+     * @return a description of the first violated constraint found (negative start time,
+     *         job precedence or machine overlap), or null if the schedule is valid.
+     */
+    public String findViolation() {
+        for(int j = 0 ; j<pb.numJobs ; j++) {
+            for(int t = 0 ; t<pb.numTasks ; t++) {
+                if(startTime(j, t) < 0)
+                    return "negative start time: task ("+j+","+t+") starts at "+startTime(j, t);
+            }
+            for(int t = 1 ; t<pb.numTasks ; t++) {
+                if(startTime(j, t-1) + pb.duration(j, t-1) > startTime(j, t))
+                    return "job precedence: task ("+j+","+(t-1)+") ends at "+(startTime(j, t-1) + pb.duration(j, t-1))
+                            +" but task ("+j+","+t+") starts at "+startTime(j, t);
+            }
+        }
+
+        // for each job on the current machine, the start time of its task (high bits) and its number (low bits)
+        long[] jobsByStartTime = new long[pb.numJobs];
+        for (int machine = 0 ; machine < pb.numMachines ; machine++) {
+            int count = 0;
+            for(int j = 0 ; j<pb.numJobs ; j++) {
+                int t = pb.task_with_machine(j, machine);
+                if(pb.duration(j, t) > 0)
+                    jobsByStartTime[count++] = ((long) startTime(j, t) << 32) | j;
+            }
+            Arrays.sort(jobsByStartTime, 0, count);
+
+            for(int i = 1 ; i<count ; i++) {
+                int j1 = (int) jobsByStartTime[i-1];
+                int t1 = pb.task_with_machine(j1, machine);
+                int j2 = (int) jobsByStartTime[i];
+                int t2 = pb.task_with_machine(j2, machine);
+
+                if(startTime(j1, t1) + pb.duration(j1, t1) > startTime(j2, t2))
+                    return "machine overlap on machine "+machine+": task ("+j1+","+t1+") ends at "+(startTime(j1, t1) + pb.duration(j1, t1))
+                            +" but task ("+j2+","+t2+") starts at "+startTime(j2, t2);
+            }
+        }
+
+        return null;
+    }
+
+    public int makespan() {
+        int max = -1;
+        for(int j = 0 ; j<pb.numJobs ; j++) {
+            max = Math.max(max, startTime(j, pb.numTasks-1) + pb.duration(j, pb.numTasks -1));
+        }
+        return max;
+    }
+    
+    public int startTime(Task task) {
+        return startTime(task.job, task.task);
+    }
+
+    public int endTime(int job, int task) {
+        return startTime(job, task) + pb.duration(job, task);
+    }
+
+    public int endTime(Task task) {
+        return endTime(task.job, task.task);
+    }
+    
+    public boolean isCriticalPath(List<Task> path) {
+        if(startTime(path.get(0)) != 0) {
+            return false;
+        }
+        if(endTime(path.get(path.size()-1)) != makespan()) {
+            return false;
+        }
+        for(int i=0 ; i<path.size()-1 ; i++) {
+            if(endTime(path.get(i)) != startTime(path.get(i+1)))
+                return false;
+        }
+        return true;
+    }
+
+    public List<Task> criticalPath() {
+        // select the first job whose last task ends at the makespan
+        int makespan = makespan();
+        int job = 0;
+        while(endTime(job, pb.numTasks-1) != makespan)
+            job++;
+        int task = pb.numTasks-1;
+
+        // list that will contain the critical path.
+        // we construct it from the end, starting with the
+        // task that finishes last, and reverse it at the end
+        ArrayList<Task> path = new ArrayList<>();
+        path.add(new Task(job, task));
+
+        // keep adding tasks to the path until the last task added
+        // starts a time 0
+        while(startTime(job, task) != 0) {
+            int start = startTime(job, task);
+
+            if(task > 0 && endTime(job, task-1) == start) {
+                // our current task was delayed by its predecessor on the job
+                task--;
+            } else {
+                // look among tasks executing on the same machine for the one delaying our current task
+                int machine = pb.machine(job, task);
+                int pred = 0;
+                while(endTime(pred, pb.task_with_machine(pred, machine)) != start)
+                    pred++;
+                job = pred;
+                task = pb.task_with_machine(pred, machine);
+            }
+            path.add(new Task(job, task));
+        }
+        Collections.reverse(path);
+        assert isCriticalPath(path);
+        return path;
+    }
+
+    public Schedule copy() {
+        return new Schedule(this.pb, this.times);
+    }
+    
+    public String toString() {
+    	String res = "";
+    	for (int i = 0; i < this.times.length; i++) {
+    		res += "Job " + Integer.toString(i + 1) + " starting times : \n";
+    		for (int j = 0; j < this.times[i].length; j++) {
+    			res += "\tTask " + Integer.toString(j + 1) + " starts at time : " + Integer.toString(this.times[i][j]) + "\n";
+    		}
+    	}
+    	return res;
+    }
+}
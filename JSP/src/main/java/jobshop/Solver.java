@@ -1,7 +1,7 @@
-package jobshop;
-
-public interface Solver {
-
-    Result solve(Instance instance, long deadline);
-
-}
+package jobshop;
+
+public interface Solver {
+
+    Result solve(Instance instance, long deadline);
+
+}
@@ -1,126 +1,382 @@
-package jobshop.encodings;
-
-import java.util.Comparator;
-import java.util.Optional;
-import java.util.stream.IntStream;
-
-import jobshop.Encoding;
-import jobshop.Instance;
-import jobshop.Schedule;
-
-
-public class ResourceOrder extends Encoding {
-	
-	public final Task[][] tasksByMachine;
-	
-	public final int[] nextFreeSlot;
-	
-	public ResourceOrder(Instance instance) {
-		super(instance);
-		
-		this.tasksByMachine = new Task[instance.numMachines][instance.numJobs];
-		for (int i = 0; i < instance.numMachines; i++) {
-			for (int j = 0; j < instance.numJobs; j++) {
-				this.tasksByMachine[i][j] = new Task(-1,-1);
-			}
-		}
-		
-		// no task scheduled on any machine (0 is the default value)
-        nextFreeSlot = new int[instance.numMachines];
-	}
-	
-	public ResourceOrder(Schedule schedule)
-	    {
-	        super(schedule.pb);
-	        Instance pb = schedule.pb;
-
-	        this.tasksByMachine = new Task[pb.numMachines][];
-	        this.nextFreeSlot = new int[instance.numMachines];
-
-	        for(int m = 0 ; m<schedule.pb.numMachines ; m++) {
-	            final int machine = m;
-
-	            // for thi machine, find all tasks that are executed on it and sort them by their start time
-	            tasksByMachine[m] =
-	                    IntStream.range(0, pb.numJobs) // all job numbers
-	                            .mapToObj(j -> new Task(j, pb.task_with_machine(j, machine))) // all tasks on this machine (one per job)
-	                            .sorted(Comparator.comparing(t -> schedule.startTime(t.job, t.task))) // sorted by start time
-	                            .toArray(Task[]::new); // as new array and store in tasksByMachine
-
-	            // indicate that all tasks have been initialized for machine m
-	            nextFreeSlot[m] = instance.numJobs;
-	        }
-	    }
-	
-	
-	@Override
-    public Schedule toSchedule() {
-        // indicate for each task that have been scheduled, its start time
-        int [][] startTimes = new int [instance.numJobs][instance.numTasks];
-
-        // for each job, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByJob = new int[instance.numJobs];
-
-        // for each machine, how many tasks have been scheduled (0 initially)
-        int[] nextToScheduleByMachine = new int[instance.numMachines];
-
-        // for each machine, earliest time at which the machine can be used
-        int[] releaseTimeOfMachine = new int[instance.numMachines];
-
-
-        // loop while there remains a job that has unscheduled tasks
-        while(IntStream.range(0, instance.numJobs).anyMatch(m -> nextToScheduleByJob[m] < instance.numTasks)) {
-
-            // selects a task that has noun scheduled predecessor on its job and machine :
-            //  - it is the next to be schedule on a machine
-            //  - it is the next to be scheduled on its job
-            // if there is no such task, we have cyclic dependency and the solution is invalid
-            Optional<Task> schedulable =
-                    IntStream.range(0, instance.numMachines) // all machines ...
-                    .filter(m -> nextToScheduleByMachine[m] < instance.numJobs) // ... with unscheduled jobs
-                    .mapToObj(m -> this.tasksByMachine[m][nextToScheduleByMachine[m]]) // tasks that are next to schedule on a machine ...
-                    .filter(task -> task.task == nextToScheduleByJob[task.job])  // ... and on their job
-                    .findFirst(); // select the first one if any
-
-            if(schedulable.isPresent()) {
-                // we found a schedulable task, lets call it t
-                Task t = schedulable.get();
-                int machine = instance.machine(t.job, t.task);
-
-                // compute the earliest start time (est) of the task
-                int est = t.task == 0 ? 0 : startTimes[t.job][t.task-1] + instance.duration(t.job, t.task-1);
-                est = Math.max(est, releaseTimeOfMachine[instance.machine(t.job, t.task)]);
-                startTimes[t.job][t.task] = est;
-
-                // mark the task as scheduled
-                nextToScheduleByJob[t.job]++;
-                nextToScheduleByMachine[machine]++;
-                // increase the release time of the machine
-                releaseTimeOfMachine[machine] = est + instance.duration(t.job, t.task);
-            } else {
-                // no tasks are schedulable, there is no solution for this resource ordering
-                return null;
-            }
-        }
-        // we exited the loop : all tasks have been scheduled successfully
-        return new Schedule(instance, startTimes);
-    }
-	
-	@Override
-    public String toString() {
-		String res = "";
-		for (int i = 0; i < this.tasksByMachine.length; i++) {
-			res += "Machine number : " + Integer.toString(i+1) + "\n";
-			for (int j = 0; j < this.tasksByMachine[i].length; j++) {
-				res += "\tUse number " + Integer.toString(j+1) + " : " + this.tasksByMachine[i][j].add_one() + "\n";
-			}
-		}
-        return res;
-    }
-	
-    /** Creates an exact copy of this resource order. */
-    public ResourceOrder copy() {
-        return new ResourceOrder(this.toSchedule());
-    }
-	
-}
+package jobshop.encodings;
+
+import java.util.Arrays;
+
+import jobshop.Encoding;
+import jobshop.Instance;
+import jobshop.Schedule;
+
+
+public class ResourceOrder extends Encoding {
+	
+	/**
+	 * The IDs (see Task.getTaskID) of the tasks executed on each machine, in their order of execution :
+	 * the task at position i on machine m is at index m * numJobs + i.
+	 * -1 marks a position that has not been set yet.
+	 */
+	private final int[] order;
+	
+	/** For each task ID, the position of the task on its machine (-1 if it has not been set yet) */
+	private final int[] indexOnMachine;
+	
+	public final int[] nextFreeSlot;
+	
+	/**
+	 * Zobrist hash of the resource order : the xor of the keys (see zobristKey) of all the
+	 * (machine, position, job) that are set, updated at each modification.
+	 */
+	private long hash;
+	
+	public ResourceOrder(Instance instance) {
+		super(instance);
+		
+		// no task is placed on any machine yet
+		this.order = new int[instance.numMachines * instance.numJobs];
+		Arrays.fill(this.order, -1);
+		this.indexOnMachine = new int[instance.numJobs * instance.numTasks];
+		Arrays.fill(this.indexOnMachine, -1);
+		
+		// no task scheduled on any machine (0 is the default value)
+        nextFreeSlot = new int[instance.numMachines];
+	}
+	
+	/**
+	 * Builds a resource order from the tasks executed on each machine.
+	 * @param instance The instance of the resource order
+	 * @param tasksByMachine For each machine, the tasks executed on it in their order of execution
+	 */
+	public ResourceOrder(Instance instance, Task[][] tasksByMachine) {
+		this(instance);
+		
+		for (int m = 0; m < instance.numMachines; m++) {
+			for (int i = 0; i < instance.numJobs; i++) {
+				this.setTask(m, i, tasksByMachine[m][i]);
+			}
+			nextFreeSlot[m] = instance.numJobs;
+		}
+	}
+	
+	public ResourceOrder(Schedule schedule)
+	    {
+	        this(schedule.pb);
+	        Instance pb = schedule.pb;
+
+	        // for each job on the current machine, its start time (high bits) and its number (low bits)
+	        long[] jobsByStartTime = new long[pb.numJobs];
+
+	        for(int m = 0 ; m<schedule.pb.numMachines ; m++) {
+	            // for this machine, find all tasks that are executed on it (one per job) and sort them by their start time
+	            for(int j = 0 ; j<pb.numJobs ; j++) {
+	                jobsByStartTime[j] = ((long) schedule.startTime(j, pb.task_with_machine(j, m)) << 32) | j;
+	            }
+	            Arrays.sort(jobsByStartTime);
+
+	            for(int i = 0 ; i<pb.numJobs ; i++) {
+	                int j = (int) jobsByStartTime[i];
+	                this.setTask(m, i, pb.taskID(j, pb.task_with_machine(j, m)));
+	            }
+
+	            // indicate that all tasks have been initialized for machine m
+	            nextFreeSlot[m] = instance.numJobs;
+	        }
+	    }
+	
+	/**
+	 * @param machine A machine
+	 * @param index A position on this machine
+	 * @return The ID of the task at this position of the machine (-1 if it has not been set yet)
+	 */
+	public int taskAt(int machine, int index) {
+		return this.order[machine * this.instance.numJobs + index];
+	}
+	
+	/**
+	 * @param taskID The ID of a task
+	 * @return The position of the task on its machine (-1 if it has not been set yet)
+	 */
+	public int indexOf(int taskID) {
+		return this.indexOnMachine[taskID];
+	}
+	
+	/**
+	 * @param machine A machine
+	 * @param index A position on this machine
+	 * @return The task at this position of the machine (null if it has not been set yet)
+	 */
+	public Task getTask(int machine, int index) {
+		int id = this.taskAt(machine, index);
+		return id < 0 ? null : new Task(this.instance.jobOf(id), this.instance.taskOf(id));
+	}
+	
+	/**
+	 * Puts a task at the given position of a machine.
+	 * @param machine The machine on which the task is executed
+	 * @param index The position of the task on the machine
+	 * @param taskID The ID of the task
+	 */
+	public void setTask(int machine, int index, int taskID) {
+		int previous = this.taskAt(machine, index);
+		if (previous >= 0 && this.indexOnMachine[previous] == index) {
+			this.indexOnMachine[previous] = -1;
+		}
+		if (previous >= 0) {
+			this.hash ^= this.zobristKey(machine, index, previous);
+		}
+		this.order[machine * this.instance.numJobs + index] = taskID;
+		this.indexOnMachine[taskID] = index;
+		this.hash ^= this.zobristKey(machine, index, taskID);
+	}
+	
+	/**
+	 * Puts a task at the given position of a machine.
+	 * @param machine The machine on which the task is executed
+	 * @param index The position of the task on the machine
+	 * @param task The task
+	 */
+	public void setTask(int machine, int index, Task task) {
+		this.setTask(machine, index, task.getTaskID(this.instance.numTasks));
+	}
+	
+	/**
+	 * @return For each machine, the tasks executed on it in their order of execution
+	 * (null for the positions that have not been set yet)
+	 */
+	public Task[][] getTasksByMachine() {
+		Task[][] tasksByMachine = new Task[this.instance.numMachines][this.instance.numJobs];
+		for (int m = 0; m < this.instance.numMachines; m++) {
+			for (int i = 0; i < this.instance.numJobs; i++) {
+				tasksByMachine[m][i] = this.getTask(m, i);
+			}
+		}
+		return tasksByMachine;
+	}
+	
+	
+	@Override
+    public Schedule toSchedule() {
+        Decoder decoder = DECODERS.get();
+        if(decoder.decode(this) < 0) {
+            // no tasks are schedulable, there is no solution for this resource ordering
+            return null;
+        }
+
+        // indicate for each task its start time
+        int [][] startTimes = new int [instance.numJobs][instance.numTasks];
+        for(int job = 0 ; job < instance.numJobs ; job++) {
+            System.arraycopy(decoder.startTimes, job * instance.numTasks, startTimes[job], 0, instance.numTasks);
+        }
+        return new Schedule(instance, startTimes);
+    }
+	
+	/**
+	 * Computes the makespan of this resource order without building its Schedule.
+	 * @return The makespan of the schedule of this resource order,
+	 * or Integer.MAX_VALUE if it contains a cycle (no schedule exists)
+	 */
+	public int makespan() {
+		int makespan = DECODERS.get().decode(this);
+		return makespan < 0 ? Integer.MAX_VALUE : makespan;
+	}
+	
+	/** The buffers used to decode resource orders, one set per thread so that they are never reallocated */
+	private static final ThreadLocal<Decoder> DECODERS = ThreadLocal.withInitial(Decoder::new);
+	
+	/**
+	 * Decodes a resource order in a topological order of its tasks : a task is put
+	 * in the queue of ready tasks as soon as its predecessors on its job and on its
+	 * machine have been scheduled, so that each task is considered only once.
+	 * All the buffers are kept from one decoding to the other.
+	 */
+	private static final class Decoder {
+		/** The start time of each task, indexed by task ID */
+		int[] startTimes = new int[0];
+		/** The IDs of the tasks that are ready to be scheduled */
+		int[] queue = new int[0];
+		/** For each job, how many tasks have been scheduled */
+		int[] nextToScheduleByJob = new int[0];
+		/** For each machine, how many tasks have been scheduled */
+		int[] nextToScheduleByMachine = new int[0];
+		/** For each machine, earliest time at which the machine can be used */
+		int[] releaseTimeOfMachine = new int[0];
+		
+		/**
+		 * Computes the start time of all the tasks of the given resource order
+		 * @param order A complete resource order
+		 * @return The makespan of the resource order, or -1 if it contains a cycle
+		 */
+		int decode(ResourceOrder order) {
+			Instance instance = order.instance;
+			int numTasks = instance.numTasks;
+			int nbTasks = instance.numJobs * numTasks;
+			if (this.startTimes.length < nbTasks) {
+				this.startTimes = new int[nbTasks];
+				this.queue = new int[nbTasks];
+			}
+			if (this.nextToScheduleByJob.length < instance.numJobs) {
+				this.nextToScheduleByJob = new int[instance.numJobs];
+			}
+			if (this.nextToScheduleByMachine.length < instance.numMachines) {
+				this.nextToScheduleByMachine = new int[instance.numMachines];
+				this.releaseTimeOfMachine = new int[instance.numMachines];
+			}
+			Arrays.fill(this.nextToScheduleByJob, 0, instance.numJobs, 0);
+			Arrays.fill(this.nextToScheduleByMachine, 0, instance.numMachines, 0);
+			Arrays.fill(this.releaseTimeOfMachine, 0, instance.numMachines, 0);
+			
+			// the tasks that are first on their machine and on their job are ready
+			int queueEnd = 0;
+			for (int m = 0; m < instance.numMachines; m++) {
+				int first = order.taskAt(m, 0);
+				if (instance.taskOf(first) == 0) {
+					this.queue[queueEnd++] = first;
+				}
+			}
+			
+			int makespan = 0;
+			for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+				int id = this.queue[queueStart];
+				int job = instance.jobOf(id);
+				int task = instance.taskOf(id);
+				int machine = instance.machine(id);
+				
+				// compute the earliest start time (est) of the task
+				int est = task == 0 ? 0 : this.startTimes[id - 1] + instance.duration(id - 1);
+				est = Math.max(est, this.releaseTimeOfMachine[machine]);
+				this.startTimes[id] = est;
+				this.releaseTimeOfMachine[machine] = est + instance.duration(id);
+				makespan = Math.max(makespan, this.releaseTimeOfMachine[machine]);
+				
+				// mark the task as scheduled
+				this.nextToScheduleByJob[job]++;
+				int next = ++this.nextToScheduleByMachine[machine];
+				
+				// the next task of the job is ready if it is the next one to be scheduled on its machine
+				if (task + 1 < numTasks && order.indexOnMachine[id + 1] == this.nextToScheduleByMachine[instance.machine(id + 1)]) {
+					this.queue[queueEnd++] = id + 1;
+				}
+				// the next task of the machine is ready if it is the next one to be scheduled on its job
+				if (next < instance.numJobs) {
+					int succ = order.taskAt(machine, next);
+					if (succ >= 0 && instance.taskOf(succ) == this.nextToScheduleByJob[instance.jobOf(succ)]) {
+						this.queue[queueEnd++] = succ;
+					}
+				}
+			}
+			
+			// if some tasks were never ready, we have a cyclic dependency and the solution is invalid
+			return queueEnd == nbTasks ? makespan : -1;
+		}
+	}
+	
+	@Override
+    public String toString() {
+		String res = "";
+		for (int i = 0; i < this.instance.numMachines; i++) {
+			res += "Machine number : " + Integer.toString(i+1) + "\n";
+			for (int j = 0; j < this.instance.numJobs; j++) {
+				Task t = this.getTask(i, j);
+				res += "\tUse number " + Integer.toString(j+1) + " : " + (t == null ? "-" : t.add_one()) + "\n";
+			}
+		}
+        return res;
+    }
+	
+    /** Removes all the tasks of this resource order, as if it had just been created (without any allocation). */
+    public void clear() {
+    	Arrays.fill(this.order, -1);
+    	Arrays.fill(this.indexOnMachine, -1);
+    	Arrays.fill(this.nextFreeSlot, 0);
+    	this.hash = 0;
+    }
+	
+    /**
+     * Makes this resource order an exact copy of another one of the same instance, without any allocation
+     * (e.g. to reuse a scratch resource order).
+     * @param other The resource order to copy
+     */
+    public void copyFrom(ResourceOrder other) {
+    	System.arraycopy(other.order, 0, this.order, 0, this.order.length);
+    	System.arraycopy(other.indexOnMachine, 0, this.indexOnMachine, 0, this.indexOnMachine.length);
+    	System.arraycopy(other.nextFreeSlot, 0, this.nextFreeSlot, 0, this.nextFreeSlot.length);
+    	this.hash = other.hash;
+    }
+	
+    /** Creates an exact copy of this resource order. */
+    public ResourceOrder copy() {
+        return new ResourceOrder(this);
+    }
+	
+	/**
+	 * Copy constructor : the arrays are copied, without decoding the resource order.
+	 * @param other The resource order to copy
+	 */
+	private ResourceOrder(ResourceOrder other) {
+		super(other.instance);
+		
+		this.order = other.order.clone();
+		this.indexOnMachine = other.indexOnMachine.clone();
+		this.nextFreeSlot = other.nextFreeSlot.clone();
+		this.hash = other.hash;
+	}
+	
+	/**
+	 * Swaps in place the tasks at the two given positions of a machine.
+	 * As swapping twice the same positions gives back the initial resource order,
+	 * this is used both to apply and to undo a move when evaluating neighbors.
+	 * @param machine The machine on which the tasks are swapped
+	 * @param index1 The position of the first task on the machine
+	 * @param index2 The position of the second task on the machine
+	 */
+	public void swapTasks(int machine, int index1, int index2) {
+		int offset = machine * this.instance.numJobs;
+		int t1 = this.order[offset + index1];
+		int t2 = this.order[offset + index2];
+		this.order[offset + index1] = t2;
+		this.order[offset + index2] = t1;
+		this.indexOnMachine[t1] = index2;
+		this.indexOnMachine[t2] = index1;
+		this.hash ^= this.swapKey(machine, index1, index2, t1, t2);
+	}
+	
+	/**
+	 * A 64-bit hash of this resource order, maintained in constant time at each modification :
+	 * two resource orders with the same tasks at the same positions have the same hash
+	 * (and two different ones have the same hash with a negligible probability).
+	 * @return The Zobrist hash of this resource order
+	 */
+	public long hash() {
+		return this.hash;
+	}
+	
+	/**
+	 * Computes in constant time the hash this resource order would have after swapTasks(machine, index1, index2),
+	 * without swapping the tasks (e.g. to look up the makespan of a neighbor in a cache).
+	 * @param machine The machine on which the tasks would be swapped
+	 * @param index1 The position of the first task on the machine
+	 * @param index2 The position of the second task on the machine
+	 * @return The hash of the resource order with the tasks swapped
+	 */
+	public long hashAfterSwap(int machine, int index1, int index2) {
+		return this.hash ^ this.swapKey(machine, index1, index2, this.taskAt(machine, index1), this.taskAt(machine, index2));
+	}
+	
+	/** The change of the hash when the tasks t1 (at index1) and t2 (at index2) of a machine are swapped. */
+	private long swapKey(int machine, int index1, int index2, int t1, int t2) {
+		return this.zobristKey(machine, index1, t1) ^ this.zobristKey(machine, index2, t2)
+				^ this.zobristKey(machine, index1, t2) ^ this.zobristKey(machine, index2, t1);
+	}
+	
+	/**
+	 * The pseudo-random key of a task at a position of a machine. A job has only one task on a machine, so
+	 * the key only depends on (machine, position, job) : it is computed from their index with the mixing function
+	 * of SplitMix64 rather than stored in a table of numMachines * numJobs * numJobs keys.
+	 */
+	private long zobristKey(int machine, int index, int taskID) {
+		long z = ((long) (machine * this.instance.numJobs + index) * this.instance.numJobs + this.instance.jobOf(taskID) + 1)
+				* 0x9E3779B97F4A7C15L;
+		z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+		z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+		return z ^ (z >>> 31);
+	}
+	
+}
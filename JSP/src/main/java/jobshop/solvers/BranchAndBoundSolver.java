@@ -0,0 +1,377 @@
+package jobshop.solvers;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicLong;
+
+import jobshop.Instance;
+import jobshop.LowerBounds;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * This class allows you to solve a JobShop problem exactly, with a branch and bound on the disjunctive graph :
+ * a node of the tree is a set of fixed disjunctions (for some pairs of tasks of a machine, which one is first).
+ * <br>
+ * For each node, the heads and tails of the tasks and its fixed disjunctions are propagated with the best solution
+ * found as upper bound (see DisjunctivePropagation), and the node is pruned if the propagation fails or if the
+ * one-machine bound (see LowerBounds.Jackson) is not better than the best solution found. Otherwise we build a
+ * solution of the node (a list schedule respecting its disjunctions) : if it reaches the bound, the node is closed.
+ * Otherwise we branch on the critical blocks of this solution (Brucker, Jurisch and Sievers, 1994) : a better
+ * solution moves a task of a critical block before the first task or after the last task of the block, so each
+ * child fixes one of these moves. The children whose propagation fails are not created, and the others are
+ * created with the disjunctions fixed by their propagation.
+ * <br>
+ * The upper bound is seeded with a TabooSolver, and the tree is explored in depth first by the threads of a
+ * fork/join pool : a thread gives the shallowest node of its stack to the pool when there is not enough work
+ * queued, so that the idle threads can steal it.
+ * <br>
+ * The fixed disjunctions of a machine are stored as bit sets of jobs, so the instances must have at most 64 jobs
+ * (see DisjunctivePropagation.MAX_JOBS).
+ */
+public class BranchAndBoundSolver implements Solver {
+
+	/** The number of threads exploring the tree */
+	private final int threads;
+
+	/** The maximum number of iterations of the TabooSolver seeding the upper bound */
+	private final int seedIterations;
+
+	/**
+	 * Constructor
+	 * @param threads The number of threads exploring the tree
+	 * @param seedIterations The maximum number of iterations of the TabooSolver seeding the upper bound
+	 */
+	public BranchAndBoundSolver(int threads, int seedIterations) {
+		this.threads = threads;
+		this.seedIterations = seedIterations;
+	}
+
+	@Override
+	public Result solve(Instance instance, long deadline) {
+		if (instance.numJobs > DisjunctivePropagation.MAX_JOBS) {
+			throw new IllegalArgumentException("The branch and bound supports at most " + DisjunctivePropagation.MAX_JOBS
+					+ " jobs, the instance has " + instance.numJobs);
+		}
+
+		// Upper bound : a taboo search, which may even reach the lower bound of the instance
+		Result seed = TabooSolver.adaptive(this.seedIterations, 0, 0).solve(instance, deadline);
+		if (seed.cause == Result.ExitCause.ProvedOptimal) {
+			return new Result(instance, seed.schedule, seed.cause);
+		}
+
+		Tree tree = new Tree(instance, deadline);
+		tree.incumbent.offer(new ResourceOrder(seed.schedule), seed.schedule.makespan());
+
+		ForkJoinPool pool = new ForkJoinPool(this.threads);
+		try {
+			pool.invoke(new Exploration(tree, tree.root()));
+		} finally {
+			pool.shutdown();
+		}
+
+		Result.ExitCause cause = tree.stopped ? Result.ExitCause.Timeout : Result.ExitCause.ProvedOptimal;
+		return new Result(instance, tree.incumbent.order().toSchedule(), cause);
+	}
+
+	/**
+	 * The data shared by all the threads exploring the tree of an instance.
+	 * <br>
+	 * A node is a long array of 2 * numMachines * numJobs bit sets : for machine m and job j, the bit set at
+	 * index m * numJobs + j contains the jobs whose task on m is before the task of j on m, and the one at
+	 * index (numMachines + m) * numJobs + j contains the jobs whose task on m is after it. The fixed disjunctions
+	 * are kept transitively closed on each machine.
+	 */
+	private static final class Tree {
+		final Instance instance;
+		final long deadline;
+
+		/** The best solution found, which gives the upper bound */
+		final Incumbent incumbent = new Incumbent();
+
+		/** Set when the deadline is reached : the tree has not been completely explored */
+		volatile boolean stopped;
+
+		/** The number of nodes evaluated */
+		final AtomicLong nodes = new AtomicLong();
+
+		/** The buffers of each thread to evaluate the nodes */
+		final ThreadLocal<NodeEvaluator> evaluators;
+
+		Tree(Instance instance, long deadline) {
+			this.instance = instance;
+			this.deadline = deadline;
+			this.evaluators = ThreadLocal.withInitial(() -> new NodeEvaluator(instance));
+		}
+
+		/** @return The root of the tree : no disjunction is fixed */
+		long[] root() {
+			return new long[2 * this.instance.numMachines * this.instance.numJobs];
+		}
+	}
+
+	/**
+	 * The depth first exploration of a subtree by a thread, which gives some of its nodes to the pool.
+	 */
+	private static final class Exploration extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+
+		private final Tree tree;
+		private final long[] root;
+
+		Exploration(Tree tree, long[] root) {
+			this.tree = tree;
+			this.root = root;
+		}
+
+		@Override
+		protected void compute() {
+			NodeEvaluator evaluator = this.tree.evaluators.get();
+			ArrayDeque<long[]> stack = new ArrayDeque<>();
+			List<Exploration> forked = new ArrayList<>();
+			stack.push(this.root);
+
+			while (!stack.isEmpty()) {
+				if (this.tree.stopped || System.currentTimeMillis() >= this.tree.deadline) {
+					this.tree.stopped = true;
+					break;
+				}
+				this.tree.nodes.incrementAndGet();
+				evaluator.expand(stack.pop(), this.tree.incumbent, stack);
+
+				// The shallowest node (the biggest subtree) is given to the pool if the other threads may lack work
+				if (stack.size() > 1 && getSurplusQueuedTaskCount() < 2) {
+					Exploration task = new Exploration(this.tree, stack.pollLast());
+					task.fork();
+					forked.add(task);
+				}
+			}
+
+			for (Exploration task : forked) {
+				task.join();
+			}
+		}
+	}
+
+	/**
+	 * Evaluates the nodes of the tree and creates their children, with buffers kept from one node to the other.
+	 */
+	private static final class NodeEvaluator {
+		private final Instance instance;
+		private final int numJobs;
+		private final int numTasks;
+		private final int nbTasks;
+
+		/** The heads, tails and fixed disjunctions of the node, propagated with the upper bound */
+		private final DisjunctivePropagation propagation;
+
+		/** The heads, durations and tails of the tasks of a machine, for the one-machine bound */
+		private final int[] machineHeads, machineDurations, machineTails;
+		private final LowerBounds.Jackson jackson;
+
+		/** The solution built for the node, its heads and tails and critical blocks */
+		private final ResourceOrder order;
+		private final HeadsTails headsTails;
+		/** For each job, the number of its tasks in the solution being built, and when the last one ends */
+		private final int[] nextTask, jobReady;
+		/** For each machine, the jobs whose task is in the solution being built, and when the last one ends */
+		private final long[] scheduledJobs;
+		private final int[] machineReady;
+		/** The children of the node being expanded */
+		private final List<long[]> children = new ArrayList<>();
+
+		NodeEvaluator(Instance instance) {
+			this.instance = instance;
+			this.numJobs = instance.numJobs;
+			this.numTasks = instance.numTasks;
+			this.nbTasks = instance.numJobs * instance.numTasks;
+			this.propagation = new DisjunctivePropagation(instance);
+			this.machineHeads = new int[this.numJobs];
+			this.machineDurations = new int[this.numJobs];
+			this.machineTails = new int[this.numJobs];
+			this.jackson = new LowerBounds.Jackson(this.numJobs);
+			this.order = new ResourceOrder(instance);
+			this.headsTails = new HeadsTails(instance);
+			this.nextTask = new int[this.numJobs];
+			this.jobReady = new int[this.numJobs];
+			this.scheduledJobs = new long[instance.numMachines];
+			this.machineReady = new int[instance.numMachines];
+		}
+
+		/**
+		 * Evaluates a node : it is pruned if its bound is not better than the incumbent, otherwise its
+		 * solution is offered to the incumbent, and its children (if any) are pushed on the stack.
+		 * @param node The fixed disjunctions of the node
+		 * @param incumbent The best solution found
+		 * @param stack The nodes to explore, the one to explore first is pushed last
+		 */
+		void expand(long[] node, Incumbent incumbent, ArrayDeque<long[]> stack) {
+			this.propagation.load(node);
+			this.propagation.setUpperBound(incumbent.makespan());
+			if (!this.propagation.propagate()) {
+				return;
+			}
+			int bound = this.bound();
+			if (bound >= incumbent.makespan()) {
+				return;
+			}
+
+			// A solution of the node, which is the best one of the node if it reaches the bound
+			this.buildSolution();
+			this.headsTails.compute(this.order);
+			int makespan = this.headsTails.makespan();
+			if (makespan < incumbent.makespan()) {
+				incumbent.offer(this.order.copy(), makespan);
+			}
+			if (makespan <= bound) {
+				return;
+			}
+
+			// Branching on the critical blocks (Brucker et al.) : a better solution moves a task of a block before
+			// the first task of the block or after its last task. The children are made disjoint by keeping the first
+			// and last tasks of the previous blocks, and by keeping the first task of the block for the moves after it.
+			int nbBlocks = this.headsTails.criticalBlocks(this.order);
+			this.children.clear();
+			for (int b = 0; b < nbBlocks; b++) {
+				int machine = this.headsTails.blockMachine(b);
+				int first = this.headsTails.blockFirst(b);
+				int last = this.headsTails.blockLast(b);
+
+				// Moves before the block
+				for (int i = first + 1; i <= last; i++) {
+					this.addChild(machine, i, first, last, true);
+				}
+				// Moves after the block, the first task being kept
+				if (!this.fixBefore(machine, first, first, last) || !this.propagation.propagate()) {
+					break;
+				}
+				for (int i = first; i < last; i++) {
+					this.addChild(machine, i, first, last, false);
+				}
+				// The following children keep this block
+				if (!this.fixAfter(machine, last, first, last) || !this.propagation.propagate()) {
+					break;
+				}
+			}
+
+			// The children are explored in the order in which they have been created
+			for (int i = this.children.size() - 1; i >= 0; i--) {
+				stack.push(this.children.get(i));
+			}
+		}
+
+		/**
+		 * Adds the child moving the task at index i of the solution of the node before (or after) the other tasks of
+		 * the block, from index first to index last of the machine, unless the propagation proves it has no better
+		 * solution. The propagation is undone afterwards.
+		 */
+		private void addChild(int machine, int i, int first, int last, boolean before) {
+			int mark = this.propagation.mark();
+			boolean fixed = before ? this.fixBefore(machine, i, first, last) : this.fixAfter(machine, i, first, last);
+			if (fixed && this.propagation.propagate()) {
+				this.children.add(this.propagation.arcs());
+			}
+			this.propagation.undo(mark);
+		}
+
+		/**
+		 * Fixes the task at index i of the solution of the node before the other tasks of the block, from index
+		 * first to index last of the machine.
+		 * @return false if one of these disjunctions is already fixed the other way (the child has no solution)
+		 */
+		private boolean fixBefore(int machine, int i, int first, int last) {
+			int u = this.order.taskAt(machine, i) / this.numTasks;
+			for (int k = first; k <= last; k++) {
+				if (k != i && !this.propagation.fix(machine, u, this.order.taskAt(machine, k) / this.numTasks)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Fixes the task at index i of the solution of the node after the other tasks of the block, from index
+		 * first to index last of the machine.
+		 * @return false if one of these disjunctions is already fixed the other way (the child has no solution)
+		 */
+		private boolean fixAfter(int machine, int i, int first, int last) {
+			int v = this.order.taskAt(machine, i) / this.numTasks;
+			for (int k = first; k <= last; k++) {
+				if (k != i && !this.propagation.fix(machine, this.order.taskAt(machine, k) / this.numTasks, v)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * @return The lower bound of the node : the longest path of its graph, and the one-machine bound of each
+		 * machine with the heads and tails of the node
+		 */
+		private int bound() {
+			int bound = 0;
+			for (int id = 0; id < this.nbTasks; id++) {
+				bound = Math.max(bound, this.propagation.head(id) + this.instance.duration(id) + this.propagation.tail(id));
+			}
+			for (int m = 0; m < this.instance.numMachines; m++) {
+				for (int job = 0; job < this.numJobs; job++) {
+					int id = this.instance.taskID(job, this.instance.task_with_machine(job, m));
+					this.machineHeads[job] = this.propagation.head(id);
+					this.machineDurations[job] = this.instance.duration(id);
+					this.machineTails[job] = this.propagation.tail(id);
+				}
+				bound = Math.max(bound, this.jackson.bound(this.numJobs, this.machineHeads, this.machineDurations, this.machineTails));
+			}
+			return bound;
+		}
+
+		/**
+		 * Builds a solution of the node in order, by a list schedule : among the tasks whose predecessors (on the
+		 * job and by the fixed disjunctions) are scheduled, we schedule the one that can start first, and the one
+		 * with the longest tail in case of a tie.
+		 */
+		private void buildSolution() {
+			this.order.clear();
+			Arrays.fill(this.nextTask, 0);
+			Arrays.fill(this.jobReady, 0);
+			Arrays.fill(this.scheduledJobs, 0);
+			Arrays.fill(this.machineReady, 0);
+
+			for (int n = 0; n < this.nbTasks; n++) {
+				int bestJob = -1;
+				int bestStart = Integer.MAX_VALUE;
+				int bestTail = -1;
+				for (int job = 0; job < this.numJobs; job++) {
+					if (this.nextTask[job] == this.numTasks) {
+						continue;
+					}
+					int id = this.instance.taskID(job, this.nextTask[job]);
+					int machine = this.instance.machine(id);
+					if ((this.propagation.before(machine, job) & ~this.scheduledJobs[machine]) != 0) {
+						continue;
+					}
+					int start = Math.max(this.jobReady[job], this.machineReady[machine]);
+					int tail = this.propagation.tail(id);
+					if (start < bestStart || (start == bestStart && tail > bestTail)) {
+						bestJob = job;
+						bestStart = start;
+						bestTail = tail;
+					}
+				}
+
+				int id = this.instance.taskID(bestJob, this.nextTask[bestJob]);
+				int machine = this.instance.machine(id);
+				this.order.setTask(machine, this.order.nextFreeSlot[machine]++, id);
+				this.nextTask[bestJob]++;
+				this.jobReady[bestJob] = bestStart + this.instance.duration(id);
+				this.machineReady[machine] = bestStart + this.instance.duration(id);
+				this.scheduledJobs[machine] |= 1L << bestJob;
+			}
+		}
+	}
+}
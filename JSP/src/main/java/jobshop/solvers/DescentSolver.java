@@ -1,242 +1,250 @@
-package jobshop.solvers;
-
-import java.util.ArrayList;
-import java.util.List;
-
-import jobshop.Instance;
-import jobshop.Result;
-import jobshop.Result.ExitCause;
-import jobshop.Schedule;
-import jobshop.Solver;
-import jobshop.encodings.ResourceOrder;
-import jobshop.encodings.Task;
-
-
-/**
- * This class allows you to use a descent method algorithm for solving a JobShop problem
- * @author antho
- *
- */
-public class DescentSolver implements Solver {
-
-	/** 
-	 * A block represents a subsequence of the critical path such that all tasks in it execute on the same machine.
-     * This class identifies a block in a ResourceOrder representation.
-     *
-     * Consider the solution in ResourceOrder representation
-     * machine 0 : (0,1) (1,2) (2,2)
-     * machine 1 : (0,2) (2,1) (1,1)
-     * machine 2 : ...
-     *
-     * The block with : machine = 1, firstTask= 0 and lastTask = 1
-     * Represent the task sequence : [(0,2) (2,1)]
-     *
-     * */
-	// TODO I should remove the public (used for tests)
-    public static class Block {
-        /** machine on which the block is identified */
-        final int machine;
-        /** index of the first task of the block */
-        final int firstTask;
-        /** index of the last task of the block */
-        final int lastTask;
-
-        Block(int machine, int firstTask, int lastTask) {
-            this.machine = machine;
-            this.firstTask = firstTask;
-            this.lastTask = lastTask;
-        }
-        
-        /**
-         * Function that gets the number of tasks in a block
-         * @return The number of tasks in a block
-         */
-        public int nbTasks() {
-        	return this.lastTask - this.firstTask + 1;
-        }
-        
-        @Override
-        public String toString() {
-			return "[Machine : " + this.machine + " | First Task : " + this.firstTask + " | Last Task : " + this.lastTask + "]";
-        }
-    }
-
-	/**
-	 * Represents a swap of two tasks on the same machine in a ResourceOrder encoding.
-	 *
-	 * Consider the solution in ResourceOrder representation
-	 * machine 0 : (0,1) (1,2) (2,2)
-	 * machine 1 : (0,2) (2,1) (1,1)
-	 * machine 2 : ...
-	 *
-	 * The swap with : machine = 1, t1= 0 and t2 = 1
-	 * Represent inversion of the two tasks : (0,2) and (2,1)
-	 * Applying this swap on the above resource order should result in the following one :
-	 * machine 0 : (0,1) (1,2) (2,2)
-	 * machine 1 : (2,1) (0,2) (1,1)
-	 * machine 2 : ...
-	 */
-    //TODO I should remove the public status (used for testing)
-    public static class Swap {
-        // machine on which to perform the swap
-        final int machine;
-        // index of one task to be swapped
-        final int t1;
-        // index of the other task to be swapped
-        final int t2;
-
-        Swap(int machine, int t1, int t2) {
-            this.machine = machine;
-            this.t1 = t1;
-            this.t2 = t2;
-        }
-
-        /**
-         * Apply this swap on the given resource order, transforming it into a new solution.
-         * @param order A ResourceOrder on which we should apply the current swap.
-         * <b>/!\ The ResourceOrder will be changed.</b>
-         * To get back to the initial one apply the swap once again.
-         */
-        public void applyOn(ResourceOrder order) {
-            Task t_aux = order.tasksByMachine[this.machine][this.t2];
-            order.tasksByMachine[this.machine][this.t2] = order.tasksByMachine[this.machine][this.t1];
-            order.tasksByMachine[this.machine][this.t1] = t_aux;            
-        }
-        
-        @Override
-        public String toString() {
-			return "[Machine : " + this.machine + " | T1 : " + this.t1 + " | T2 : " + this.t2 + "]";
-        }
-    }
-
-    public DescentSolver() {
-    	super();
-    }
-
-    @Override
-    public Result solve(Instance instance, long deadline) {
-    	// We get an initial solution with the EST_LRPT greedy solver
-        GreedySolver gs = new GreedySolver(EST_PriorityRule.EST_LRPT);
-    	Schedule best = gs.solve(instance, deadline).schedule;
-    	
-    	ResourceOrder order = null;
-    	ExitCause ec = null;
-    	Boolean updated = true;
-    	
-    	while(updated && deadline - System.currentTimeMillis() > 1) {
-    		//System.out.println("here");
-    		updated = false;
-    		// We update the resource order
-    		order = new ResourceOrder(best);
-    		// We get all the blocks from the critical path
-    		ArrayList<Block> blocks = (ArrayList<Block>) this.blocksOfCriticalPath(order);
-    		
-    		for (Block b : blocks) {
-    			// For each block we get all its neighbors
-    			ArrayList<Swap> nbrs = (ArrayList<Swap>) this.neighbors(b);
-    			
-    			for (Swap s : nbrs) {
-    				// For each neighbor, we apply the swap and we check if it is better than the current best solution
-    				s.applyOn(order);
-    				Schedule current = order.toSchedule();
-    				if ((current != null) && (current.makespan() < best.makespan())) {
-    					// We found a better solution
-    					updated = true;
-    					best = current;
-    				}
-    				s.applyOn(order);
-    			}	
-    		}
-    	}
-    	
-    	// Check if the algorithm ended because of a timeout or because it was blocked
-    	if (updated) {
-    		ec = Result.ExitCause.Timeout;
-    	} else {
-    		ec = Result.ExitCause.Blocked;
-    	}
-    	
-    	return new Result(instance, best, ec);
-    }
-
-    /** 
-     * Returns a list of all blocks of the critical path. 
-     * @param order A Resource Order of which we have to extract the blocks of the critical path 
-     * @return A list with the blocks of the critical path 
-     */
-    public List<Block> blocksOfCriticalPath(ResourceOrder order) {
-        // Recovering the critical path of this solution
-    	List<Task> criticalPath = order.toSchedule().criticalPath();
-    	// Recovering the number of machines for this problem
-        int nbMachines = order.instance.numMachines;
-        // Recovering the number of jobs for this problem
-        int nbJobs = order.instance.numJobs;
-        // An array containing the first and last task executed in each block
-        // It has nbMachines lines and 2 columns (one for the first and one 
-        // for the last task of the block). Initialized at -1.
-        int [][] blocksArray = new int [nbMachines][2];
-        for (int i = 0; i < nbMachines; i++) {
-        	blocksArray[i][0] = -1;
-        	blocksArray[i][1] = -1;
-        }
-        
-        for (Task t : criticalPath) {
-        	// Get the machine used for the current task
-        	int currentMachine = order.instance.machine(t.job, t.task);
-        	// Get the number of the execution for this task in the machine
-        	// (is it the first task to execute on this machine? the second?)
-        	int taskForMachine = -1;
-        	for (int i = 0; i < nbJobs; i++) {
-        		if (t.equals(order.tasksByMachine[currentMachine][i])) {
-        			taskForMachine = i;
-        		}
-        	}
-        	// Updating blocksArray if necessary
-        	if (blocksArray[currentMachine][0] == -1 && blocksArray[currentMachine][1] == -1) {
-        		// First task to appear for this block so its the fisrt and the last for the moment
-        		blocksArray[currentMachine][0] = taskForMachine;
-        		blocksArray[currentMachine][1] = taskForMachine;
-        	} else {
-        		// For the moment, it is the last task for this block
-        		blocksArray[currentMachine][1] = taskForMachine;
-        	}
-        }
-    	
-        // Now that we have the data needed, we create the blocks and return them
-        ArrayList<Block> blocks = new ArrayList<>();
-        for (int i = 0; i < nbMachines; i++) {
-        	if (blocksArray[i][0] != -1 && blocksArray[i][1] != -1 && blocksArray[i][0] != blocksArray[i][1]) {
-        		// This block is used in the critical path
-        		Block current = new Block(i, blocksArray[i][0], blocksArray[i][1]);
-        		blocks.add(current);
-        	}
-        }
-        
-        return blocks;
-    }
-
-    /** 
-     * For a given block, return the possible swaps for the Nowicki and Smutnicki neighborhood
-     * @param A block of which we extract the neighbors
-     * @return A list of Swaps that represent the neighbors of the current solution
-     */
-    public List<Swap> neighbors(Block block) {
-        List<Swap> nbrs = new ArrayList<>();
-        
-        if (block.nbTasks() == 2) {
-        	// There's only one possible swap
-        	Swap s1 = new Swap(block.machine, block.firstTask, block.lastTask);
-        	nbrs.add(s1);
-        } else if (block.nbTasks() > 2) {
-        	// There are 2 possible swap
-        	Swap s1 = new Swap(block.machine, block.firstTask, block.firstTask + 1);
-        	Swap s2 = new Swap(block.machine, block.lastTask - 1, block.lastTask);
-        	nbrs.add(s1);
-        	nbrs.add(s2);
-        } else {
-        	System.out.println("Less than 2 tasks in the block : ERROR");
-        }
-        
-        return nbrs;
-    }
-}
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Result.ExitCause;
+import jobshop.Schedule;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+
+/**
+ * This class allows you to use a descent method algorithm for solving a JobShop problem
+ * @author antho
+ *
+ */
+public class DescentSolver implements Solver {
+
+	/** 
+	 * A block represents a subsequence of the critical path such that all tasks in it execute on the same machine.
+     * This class identifies a block in a ResourceOrder representation.
+     *
+     * Consider the solution in ResourceOrder representation
+     * machine 0 : (0,1) (1,2) (2,2)
+     * machine 1 : (0,2) (2,1) (1,1)
+     * machine 2 : ...
+     *
+     * The block with : machine = 1, firstTask= 0 and lastTask = 1
+     * Represent the task sequence : [(0,2) (2,1)]
+     *
+     * */
+	// TODO I should remove the public (used for tests)
+    public static class Block {
+        /** machine on which the block is identified */
+        final int machine;
+        /** index of the first task of the block */
+        final int firstTask;
+        /** index of the last task of the block */
+        final int lastTask;
+
+        Block(int machine, int firstTask, int lastTask) {
+            this.machine = machine;
+            this.firstTask = firstTask;
+            this.lastTask = lastTask;
+        }
+        
+        /**
+         * Function that gets the number of tasks in a block
+         * @return The number of tasks in a block
+         */
+        public int nbTasks() {
+        	return this.lastTask - this.firstTask + 1;
+        }
+        
+        @Override
+        public String toString() {
+			return "[Machine : " + this.machine + " | First Task : " + this.firstTask + " | Last Task : " + this.lastTask + "]";
+        }
+    }
+
+	/**
+	 * Represents a swap of two tasks on the same machine in a ResourceOrder encoding.
+	 *
+	 * Consider the solution in ResourceOrder representation
+	 * machine 0 : (0,1) (1,2) (2,2)
+	 * machine 1 : (0,2) (2,1) (1,1)
+	 * machine 2 : ...
+	 *
+	 * The swap with : machine = 1, t1= 0 and t2 = 1
+	 * Represent inversion of the two tasks : (0,2) and (2,1)
+	 * Applying this swap on the above resource order should result in the following one :
+	 * machine 0 : (0,1) (1,2) (2,2)
+	 * machine 1 : (2,1) (0,2) (1,1)
+	 * machine 2 : ...
+	 */
+    //TODO I should remove the public status (used for testing)
+    public static class Swap {
+        // machine on which to perform the swap
+        final int machine;
+        // index of one task to be swapped
+        final int t1;
+        // index of the other task to be swapped
+        final int t2;
+
+        Swap(int machine, int t1, int t2) {
+            this.machine = machine;
+            this.t1 = t1;
+            this.t2 = t2;
+        }
+
+        /**
+         * Apply this swap on the given resource order, transforming it into a new solution.
+         * @param order A ResourceOrder on which we should apply the current swap.
+         * <b>/!\ The ResourceOrder will be changed.</b>
+         * To get back to the initial one apply the swap once again.
+         */
+        public void applyOn(ResourceOrder order) {
+            order.swapTasks(this.machine, this.t1, this.t2);
+        }
+        
+        /**
+         * Undo this swap on the given resource order, on which it has been applied before.
+         * @param order A ResourceOrder on which the current swap has been applied.
+         * <b>/!\ The ResourceOrder will be changed.</b>
+         */
+        public void undoOn(ResourceOrder order) {
+            order.swapTasks(this.machine, this.t1, this.t2);
+        }
+        
+        @Override
+        public String toString() {
+			return "[Machine : " + this.machine + " | T1 : " + this.t1 + " | T2 : " + this.t2 + "]";
+        }
+    }
+
+    /** The solver giving the initial solution */
+    private final Solver start;
+
+    /**
+     * Constructor, the initial solution is given by the EST_LRPT greedy solver
+     */
+    public DescentSolver() {
+    	this(new GreedySolver(EST_PriorityRule.EST_LRPT));
+    }
+
+    /**
+     * Constructor
+     * @param start The solver giving the initial solution (e.g. a ShiftingBottleneckSolver)
+     */
+    public DescentSolver(Solver start) {
+    	this.start = start;
+    }
+
+    @Override
+    public Result solve(Instance instance, long deadline) {
+    	// We get an initial solution with the starting solver
+    	Schedule best = this.start.solve(instance, deadline).schedule;
+    	
+    	// The resource order of the best solution, it is only modified in place
+    	ResourceOrder order = new ResourceOrder(best);
+    	int bestMakespan = best.makespan();
+    	ExitCause ec = null;
+    	Boolean updated = true;
+    	
+    	// The heads and tails of the current solution, used to find its critical blocks
+    	// (they are computed once, then updated at each move)
+    	HeadsTails headsTails = new HeadsTails(instance);
+    	headsTails.compute(order);
+    	// The makespan of the neighbors already evaluated (e.g. the previous solution is a neighbor of the current one)
+    	ZobristTable makespans = new ZobristTable(12);
+    	
+    	// We stop when no neighbor is better, at the deadline, or when the lower bound is reached (the solution is optimal)
+    	while(updated && bestMakespan > instance.lowerBound() && deadline - System.currentTimeMillis() > 1) {
+    		updated = false;
+    		// We get all the blocks from the critical path
+    		int nbBlocks = headsTails.criticalBlocks(order);
+    		// The best neighbor found in this round
+    		Swap bestSwap = null;
+    		
+    		for (int b = 0; b < nbBlocks; b++) {
+    			Block block = new Block(headsTails.blockMachine(b), headsTails.blockFirst(b), headsTails.blockLast(b));
+    			// For each block we get all its neighbors (see neighbors)
+    			for (Swap swap : this.neighbors(block)) {
+    				// For each neighbor, we apply the swap and we check if it is better than the current best solution
+    				// (only the makespan is needed, the schedule of the neighbor is not built, and it is not even
+    				// decoded if it has already been evaluated)
+    				long hash = order.hashAfterSwap(swap.machine, swap.t1, swap.t2);
+    				int makespan = makespans.get(hash);
+    				if (makespan == ZobristTable.ABSENT) {
+    					swap.applyOn(order);
+    					makespan = order.makespan();
+    					// We go back to the current solution before evaluating the next neighbor
+    					swap.undoOn(order);
+    					makespans.put(hash, makespan);
+    				}
+    				if (makespan < bestMakespan) {
+    					// We found a better solution
+    					updated = true;
+    					bestMakespan = makespan;
+    					bestSwap = swap;
+    				}
+    			}
+    		}
+    		
+    		if (updated) {
+    			// We move to the best neighbor (its tasks are adjacent), the heads and tails are updated around them
+    			headsTails.applySwap(order, bestSwap.machine, bestSwap.t1);
+    		}
+    	}
+    	// The schedule is only built for the final solution
+    	best = order.toSchedule();
+    	
+    	// Check if the algorithm ended because of a timeout or because it was blocked
+    	if (bestMakespan <= instance.lowerBound()) {
+    		ec = Result.ExitCause.ProvedOptimal;
+    	} else if (updated) {
+    		ec = Result.ExitCause.Timeout;
+    	} else {
+    		ec = Result.ExitCause.Blocked;
+    	}
+    	
+    	return new Result(instance, best, ec);
+    }
+
+    /** 
+     * Returns a list of all blocks of the critical path. 
+     * @param order A Resource Order of which we have to extract the blocks of the critical path 
+     * @return A list with the blocks of the critical path 
+     */
+    public List<Block> blocksOfCriticalPath(ResourceOrder order) {
+        // The blocks are extracted from the heads and tails of the solution
+        HeadsTails headsTails = new HeadsTails(order.instance);
+        headsTails.compute(order);
+        int nbBlocks = headsTails.criticalBlocks(order);
+        
+        ArrayList<Block> blocks = new ArrayList<>();
+        for (int b = 0; b < nbBlocks; b++) {
+        	blocks.add(new Block(headsTails.blockMachine(b), headsTails.blockFirst(b), headsTails.blockLast(b)));
+        }
+        
+        return blocks;
+    }
+
+    /** 
+     * For a given block, return the possible swaps for the Nowicki and Smutnicki neighborhood
+     * @param A block of which we extract the neighbors
+     * @return A list of Swaps that represent the neighbors of the current solution
+     */
+    public List<Swap> neighbors(Block block) {
+        List<Swap> nbrs = new ArrayList<>();
+        
+        if (block.nbTasks() == 2) {
+        	// There's only one possible swap
+        	Swap s1 = new Swap(block.machine, block.firstTask, block.lastTask);
+        	nbrs.add(s1);
+        } else if (block.nbTasks() > 2) {
+        	// There are 2 possible swap
+        	Swap s1 = new Swap(block.machine, block.firstTask, block.firstTask + 1);
+        	Swap s2 = new Swap(block.machine, block.lastTask - 1, block.lastTask);
+        	nbrs.add(s1);
+        	nbrs.add(s2);
+        } else {
+        	throw new IllegalStateException("A block contains at least 2 tasks : " + block);
+        }
+        
+        return nbrs;
+    }
+}
@@ -0,0 +1,495 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+import jobshop.Instance;
+
+/**
+ * Constraint propagation on the disjunctive graph of an instance, for the search of a schedule whose makespan is
+ * lower than an upper bound (see setUpperBound).
+ * <br>
+ * <br>
+ * For each task, we maintain its head (release date : it cannot start earlier) and its tail (the time that has to
+ * elapse between its end and the end of the schedule), and for each machine the disjunctions already fixed
+ * (which of two tasks is first), kept transitively closed. The rules applied until a fixpoint is reached are :
+ * <ul>
+ * <li>the precedences : a task starts after the end of its predecessors on its job and on its machine, and
+ * symmetrically for the tails ;</li>
+ * <li>the immediate selection : if a task a cannot be before a task b of the same machine (head(a) + duration(a)
+ * + duration(b) + tail(b) is not lower than the upper bound), b is fixed before a ;</li>
+ * <li>the edge finding (Carlier and Pinson) : if a task cannot be before nor among a set of tasks of its machine,
+ * it is fixed after all of them and its head is raised to the earliest end of the set (and symmetrically for the
+ * tails), with the O(n^2) algorithm of Baptiste, Le Pape and Nuijten on each machine.</li>
+ * </ul>
+ * When a head plus duration plus tail reaches the upper bound (which also happens on the cycles of the graph), or
+ * when a disjunction can be fixed neither way, there is no better schedule and the propagation fails.
+ * <br>
+ * <br>
+ * The changes are recorded on a trail, so that a search can go back to a previous state (see mark and undo)
+ * instead of copying the whole state. The disjunctions of a machine are stored as bit sets of jobs, so the
+ * instance must have at most 64 jobs.
+ */
+public class DisjunctivePropagation {
+
+	/** The maximum number of jobs of an instance */
+	public static final int MAX_JOBS = 64;
+
+	/** The instance we are working on */
+	private final Instance instance;
+	private final int numJobs, numMachines, nbTasks;
+
+	/** The task ID of each job on each machine, at index machine * numJobs + job */
+	private final int[] onMachine;
+
+	/** The head and tail of each task */
+	private final int[] heads, tails;
+
+	/**
+	 * The fixed disjunctions : for machine m and job j, the bit set at index m * numJobs + j contains the jobs whose
+	 * task on m is before the task of j on m, and the one at index (numMachines + m) * numJobs + j the jobs whose task
+	 * on m is after it.
+	 */
+	private final long[] arcs;
+
+	/** The makespan of the schedules we are looking for is at most target (the upper bound minus one) */
+	private int target;
+
+	/**
+	 * The trail : the index of each value changed (heads, then tails, then arcs) and its previous value,
+	 * in the order of the changes
+	 */
+	private int[] trailIndex;
+	private long[] trailValue;
+	private int trailSize;
+
+	/** The tasks whose head (resp. tail) changed and has to be propagated, in circular buffers */
+	private final int[] headQueue, tailQueue;
+	private final boolean[] headQueued, tailQueued;
+	private int headStart, headSize, tailStart, tailSize;
+
+	/** The machines on which the immediate selection and the edge finding have to be applied again */
+	private final boolean[] dirty;
+	private int nextDirty;
+
+	/** The tasks of the machine for the edge finding, as (release, job) sorted by release (scratch buffers) */
+	private final long[] byRelease;
+	private final int[] releases, durations, dueDates;
+	/** The raised release of each job, and the jobs it is after, found by the edge finding (scratch buffers) */
+	private final int[] raised;
+	private final long[] raisedAfter;
+
+	/**
+	 * Constructor
+	 * @param instance The instance we will work on, with at most MAX_JOBS jobs
+	 */
+	public DisjunctivePropagation(Instance instance) {
+		if (instance.numJobs > MAX_JOBS) {
+			throw new IllegalArgumentException("At most " + MAX_JOBS + " jobs are supported");
+		}
+		this.instance = instance;
+		this.numJobs = instance.numJobs;
+		this.numMachines = instance.numMachines;
+		this.nbTasks = instance.numJobs * instance.numTasks;
+		this.onMachine = new int[this.numMachines * this.numJobs];
+		for (int m = 0; m < this.numMachines; m++) {
+			for (int job = 0; job < this.numJobs; job++) {
+				this.onMachine[m * this.numJobs + job] = instance.taskID(job, instance.task_with_machine(job, m));
+			}
+		}
+		this.heads = new int[this.nbTasks];
+		this.tails = new int[this.nbTasks];
+		this.arcs = new long[2 * this.numMachines * this.numJobs];
+		this.trailIndex = new int[1024];
+		this.trailValue = new long[1024];
+		this.headQueue = new int[this.nbTasks];
+		this.tailQueue = new int[this.nbTasks];
+		this.headQueued = new boolean[this.nbTasks];
+		this.tailQueued = new boolean[this.nbTasks];
+		this.dirty = new boolean[this.numMachines];
+		this.byRelease = new long[this.numJobs];
+		this.releases = new int[this.numJobs];
+		this.durations = new int[this.numJobs];
+		this.dueDates = new int[this.numJobs];
+		this.raised = new int[this.numJobs];
+		this.raisedAfter = new long[this.numJobs];
+
+		// Any schedule without cycle can be compressed to a makespan of at most the sum of the durations
+		int total = 0;
+		for (int id = 0; id < this.nbTasks; id++) {
+			total += instance.duration(id);
+		}
+		this.target = total;
+		this.reset();
+	}
+
+	/**
+	 * Goes back to the initial state : no disjunction is fixed, the heads and tails only come from the jobs,
+	 * and the trail is empty. The upper bound is kept.
+	 */
+	public void reset() {
+		for (int id = 0; id < this.nbTasks; id++) {
+			int job = this.instance.jobOf(id);
+			int task = this.instance.taskOf(id);
+			this.heads[id] = this.instance.processedWork(job, task);
+			this.tails[id] = this.instance.remainingWork(job, task) - this.instance.duration(id);
+		}
+		Arrays.fill(this.arcs, 0);
+		this.trailSize = 0;
+		this.clearQueues();
+		Arrays.fill(this.dirty, true);
+	}
+
+	/**
+	 * Goes back to the initial state, then fixes some disjunctions (see arcs), which are propagated by the next
+	 * call to propagate.
+	 * @param fixed The fixed disjunctions, transitively closed on each machine
+	 */
+	public void load(long[] fixed) {
+		this.reset();
+		System.arraycopy(fixed, 0, this.arcs, 0, this.arcs.length);
+		for (int id = 0; id < this.nbTasks; id++) {
+			this.queueHead(id);
+			this.queueTail(id);
+		}
+	}
+
+	/**
+	 * Sets the makespan of the best schedule known : the propagation looks for schedules with a lower makespan.
+	 * It is not recorded on the trail, since the deductions made with a bound remain valid with a lower one.
+	 */
+	public void setUpperBound(int upperBound) {
+		this.target = upperBound - 1;
+		Arrays.fill(this.dirty, true);
+	}
+
+	/** @return The head of a task */
+	public int head(int taskID) {
+		return this.heads[taskID];
+	}
+
+	/** @return The tail of a task */
+	public int tail(int taskID) {
+		return this.tails[taskID];
+	}
+
+	/** @return The bit set of the jobs whose task on the machine is fixed before the task of the job */
+	public long before(int machine, int job) {
+		return this.arcs[machine * this.numJobs + job];
+	}
+
+	/** @return The bit set of the jobs whose task on the machine is fixed after the task of the job */
+	public long after(int machine, int job) {
+		return this.arcs[(this.numMachines + machine) * this.numJobs + job];
+	}
+
+	/** @return A copy of the fixed disjunctions, which can be given to load */
+	public long[] arcs() {
+		return this.arcs.clone();
+	}
+
+	/** @return The position of the trail, to go back to the current state with undo */
+	public int mark() {
+		return this.trailSize;
+	}
+
+	/**
+	 * Goes back to the state of a mark, undoing all the changes made since then
+	 * @param mark A position of the trail returned by mark
+	 */
+	public void undo(int mark) {
+		while (this.trailSize > mark) {
+			this.trailSize--;
+			int index = this.trailIndex[this.trailSize];
+			long value = this.trailValue[this.trailSize];
+			if (index < this.nbTasks) {
+				this.heads[index] = (int) value;
+			} else if (index < 2 * this.nbTasks) {
+				this.tails[index - this.nbTasks] = (int) value;
+			} else {
+				this.arcs[index - 2 * this.nbTasks] = value;
+			}
+		}
+		this.clearQueues();
+	}
+
+	/**
+	 * Fixes the task of job u before the task of job v on the machine, and all the disjunctions it implies
+	 * (the tasks before u are before the tasks after v). The consequences are propagated by the next call to
+	 * propagate.
+	 * @return false if the task of v is already fixed before the task of u
+	 */
+	public boolean fix(int machine, int u, int v) {
+		int afterU = (this.numMachines + machine) * this.numJobs + u;
+		if ((this.after(machine, v) & (1L << u)) != 0 || u == v) {
+			return false;
+		}
+		if ((this.arcs[afterU] & (1L << v)) != 0) {
+			return true;
+		}
+		long predecessors = this.before(machine, u) | (1L << u);
+		long successors = this.after(machine, v) | (1L << v);
+		for (long bits = predecessors; bits != 0; bits &= bits - 1) {
+			int job = Long.numberOfTrailingZeros(bits);
+			this.setArcs((this.numMachines + machine) * this.numJobs + job, successors);
+			this.queueHead(this.onMachine[machine * this.numJobs + job]);
+		}
+		for (long bits = successors; bits != 0; bits &= bits - 1) {
+			int job = Long.numberOfTrailingZeros(bits);
+			this.setArcs(machine * this.numJobs + job, predecessors);
+			this.queueTail(this.onMachine[machine * this.numJobs + job]);
+		}
+		this.dirty[machine] = true;
+		return true;
+	}
+
+	/**
+	 * Applies the rules until a fixpoint is reached.
+	 * @return false if there is no schedule better than the upper bound with the fixed disjunctions. The state is
+	 * then partially propagated, and should be undone.
+	 */
+	public boolean propagate() {
+		while (true) {
+			if (!this.propagatePrecedences()) {
+				this.clearQueues();
+				return false;
+			}
+			int machine = this.nextDirtyMachine();
+			if (machine < 0) {
+				return true;
+			}
+			this.dirty[machine] = false;
+			if (!this.immediateSelection(machine) || !this.edgeFinding(machine, true) || !this.edgeFinding(machine, false)) {
+				this.clearQueues();
+				return false;
+			}
+		}
+	}
+
+	/** Propagates the changes of the heads to the successors of the tasks, and of the tails to their predecessors */
+	private boolean propagatePrecedences() {
+		while (this.headSize > 0 || this.tailSize > 0) {
+			while (this.headSize > 0) {
+				int id = this.headQueue[this.headStart];
+				this.headStart = (this.headStart + 1) % this.nbTasks;
+				this.headSize--;
+				this.headQueued[id] = false;
+
+				int end = this.heads[id] + this.instance.duration(id);
+				if (this.instance.taskOf(id) + 1 < this.instance.numTasks && !this.setHead(id + 1, end)) {
+					return false;
+				}
+				int machine = this.instance.machine(id);
+				for (long bits = this.after(machine, this.instance.jobOf(id)); bits != 0; bits &= bits - 1) {
+					if (!this.setHead(this.onMachine[machine * this.numJobs + Long.numberOfTrailingZeros(bits)], end)) {
+						return false;
+					}
+				}
+			}
+			while (this.tailSize > 0) {
+				int id = this.tailQueue[this.tailStart];
+				this.tailStart = (this.tailStart + 1) % this.nbTasks;
+				this.tailSize--;
+				this.tailQueued[id] = false;
+
+				int tail = this.instance.duration(id) + this.tails[id];
+				if (this.instance.taskOf(id) > 0 && !this.setTail(id - 1, tail)) {
+					return false;
+				}
+				int machine = this.instance.machine(id);
+				for (long bits = this.before(machine, this.instance.jobOf(id)); bits != 0; bits &= bits - 1) {
+					if (!this.setTail(this.onMachine[machine * this.numJobs + Long.numberOfTrailingZeros(bits)], tail)) {
+						return false;
+					}
+				}
+			}
+		}
+		return true;
+	}
+
+	/** Fixes the disjunctions of the machine that can only be fixed one way */
+	private boolean immediateSelection(int machine) {
+		for (int a = 0; a < this.numJobs; a++) {
+			int idA = this.onMachine[machine * this.numJobs + a];
+			for (int b = a + 1; b < this.numJobs; b++) {
+				if (((this.before(machine, a) | this.after(machine, a)) & (1L << b)) != 0) {
+					continue;
+				}
+				int idB = this.onMachine[machine * this.numJobs + b];
+				int durations = this.instance.duration(idA) + this.instance.duration(idB);
+				boolean aFirst = this.heads[idA] + durations + this.tails[idB] <= this.target;
+				boolean bFirst = this.heads[idB] + durations + this.tails[idA] <= this.target;
+				if (!aFirst && !bFirst) {
+					return false;
+				}
+				if (!aFirst && !this.fix(machine, b, a)) {
+					return false;
+				}
+				if (!bFirst && !this.fix(machine, a, b)) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * The edge finding on the heads of the tasks of the machine, or on their tails (the same rule on the mirror
+	 * problem, where the tails are the releases). For each set of the tasks whose due date (target - tail) is at
+	 * most the one of a task k, we look for the tasks that cannot end before the due date of the set if they are
+	 * among it, which are after the whole set.
+	 */
+	private boolean edgeFinding(int machine, boolean onHeads) {
+		int[] release = onHeads ? this.heads : this.tails;
+		int[] tail = onHeads ? this.tails : this.heads;
+		int n = this.numJobs;
+		for (int job = 0; job < n; job++) {
+			int id = this.onMachine[machine * n + job];
+			this.releases[job] = release[id];
+			this.durations[job] = this.instance.duration(id);
+			this.dueDates[job] = this.target - tail[id];
+			this.byRelease[job] = ((long) release[id] << 32) | job;
+			this.raised[job] = release[id];
+			this.raisedAfter[job] = 0;
+		}
+		Arrays.sort(this.byRelease, 0, n);
+
+		boolean found = false;
+		for (int k = 0; k < n; k++) {
+			int due = this.dueDates[k];
+			// The earliest end of the set, and of its tasks released after each task
+			int work = 0;
+			int end = Integer.MIN_VALUE;
+			long set = 0;
+			for (int i = n - 1; i >= 0; i--) {
+				int job = (int) this.byRelease[i];
+				if (this.dueDates[job] <= due) {
+					work += this.durations[job];
+					end = Math.max(end, this.releases[job] + work);
+					set |= 1L << job;
+				}
+			}
+			if (end > due) {
+				return false;
+			}
+			// work is the duration of the tasks of the set released after i, and maxEnd the earliest end of the set
+			// with the task i added after the tasks released before it
+			int maxEnd = Integer.MIN_VALUE;
+			for (int i = 0; i < n; i++) {
+				int job = (int) this.byRelease[i];
+				if (this.dueDates[job] <= due) {
+					maxEnd = Math.max(maxEnd, this.releases[job] + work);
+					work -= this.durations[job];
+				} else if (this.releases[job] + work + this.durations[job] > due
+						|| (maxEnd != Integer.MIN_VALUE && maxEnd + this.durations[job] > due)) {
+					this.raised[job] = Math.max(this.raised[job], end);
+					this.raisedAfter[job] |= set;
+					found = true;
+				}
+			}
+		}
+		if (!found) {
+			return true;
+		}
+
+		for (int job = 0; job < n; job++) {
+			if (this.raisedAfter[job] == 0) {
+				continue;
+			}
+			int id = this.onMachine[machine * n + job];
+			if (!(onHeads ? this.setHead(id, this.raised[job]) : this.setTail(id, this.raised[job]))) {
+				return false;
+			}
+			for (long bits = this.raisedAfter[job]; bits != 0; bits &= bits - 1) {
+				int other = Long.numberOfTrailingZeros(bits);
+				if (!(onHeads ? this.fix(machine, other, job) : this.fix(machine, job, other))) {
+					return false;
+				}
+			}
+		}
+		return true;
+	}
+
+	/** Raises the head of a task, if the value is higher */
+	private boolean setHead(int id, int value) {
+		if (value <= this.heads[id]) {
+			return true;
+		}
+		if (value + this.instance.duration(id) + this.tails[id] > this.target) {
+			return false;
+		}
+		this.record(id, this.heads[id]);
+		this.heads[id] = value;
+		this.queueHead(id);
+		this.dirty[this.instance.machine(id)] = true;
+		return true;
+	}
+
+	/** Raises the tail of a task, if the value is higher */
+	private boolean setTail(int id, int value) {
+		if (value <= this.tails[id]) {
+			return true;
+		}
+		if (this.heads[id] + this.instance.duration(id) + value > this.target) {
+			return false;
+		}
+		this.record(this.nbTasks + id, this.tails[id]);
+		this.tails[id] = value;
+		this.queueTail(id);
+		this.dirty[this.instance.machine(id)] = true;
+		return true;
+	}
+
+	/** Adds jobs to a bit set of arcs */
+	private void setArcs(int index, long jobs) {
+		if ((this.arcs[index] | jobs) != this.arcs[index]) {
+			this.record(2 * this.nbTasks + index, this.arcs[index]);
+			this.arcs[index] |= jobs;
+		}
+	}
+
+	/** Records the previous value of a head, tail or bit set of arcs on the trail */
+	private void record(int index, long value) {
+		if (this.trailSize == this.trailIndex.length) {
+			this.trailIndex = Arrays.copyOf(this.trailIndex, 2 * this.trailSize);
+			this.trailValue = Arrays.copyOf(this.trailValue, 2 * this.trailSize);
+		}
+		this.trailIndex[this.trailSize] = index;
+		this.trailValue[this.trailSize] = value;
+		this.trailSize++;
+	}
+
+	private void queueHead(int id) {
+		if (!this.headQueued[id]) {
+			this.headQueued[id] = true;
+			this.headQueue[(this.headStart + this.headSize) % this.nbTasks] = id;
+			this.headSize++;
+		}
+	}
+
+	private void queueTail(int id) {
+		if (!this.tailQueued[id]) {
+			this.tailQueued[id] = true;
+			this.tailQueue[(this.tailStart + this.tailSize) % this.nbTasks] = id;
+			this.tailSize++;
+		}
+	}
+
+	private void clearQueues() {
+		Arrays.fill(this.headQueued, false);
+		Arrays.fill(this.tailQueued, false);
+		this.headStart = this.headSize = 0;
+		this.tailStart = this.tailSize = 0;
+	}
+
+	/** @return A machine on which the rules have to be applied again, or -1 if there is none */
+	private int nextDirtyMachine() {
+		for (int i = 0; i < this.numMachines; i++) {
+			int machine = (this.nextDirty + i) % this.numMachines;
+			if (this.dirty[machine]) {
+				this.nextDirty = (machine + 1) % this.numMachines;
+				return machine;
+			}
+		}
+		return -1;
+	}
+}
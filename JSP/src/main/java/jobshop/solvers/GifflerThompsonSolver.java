@@ -0,0 +1,190 @@
+package jobshop.solvers;
+
+import java.util.SplittableRandom;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * This class builds active schedules with the Giffler and Thompson algorithm : at each step,
+ * among the feasable tasks (the next task of each job), we take the one that can end first.
+ * The tasks of its machine that could start before this end form the conflict set, and the
+ * priority rule chooses the one to schedule among them. The task that can end first is always
+ * in its conflict set, even with a zero duration (it then starts at this end).
+ * <br>
+ * Each step is in O(numJobs), so a schedule is built in O(n * numJobs).
+ */
+public class GifflerThompsonSolver implements Solver {
+
+	/** The priority rule used in the conflict sets */
+	public final PriorityRule pr;
+	/** Whether the tasks of the conflict set that can start first are preferred (EST priority rule) */
+	public final boolean est;
+
+	/**
+	 * Constructor with a normal priority rule
+	 * @param pr The priority rule used in the conflict sets
+	 */
+	public GifflerThompsonSolver(PriorityRule pr) {
+		this.pr = pr;
+		this.est = false;
+	}
+
+	/**
+	 * Constructor with an EST priority rule
+	 * @param estPr The EST priority rule used in the conflict sets
+	 */
+	public GifflerThompsonSolver(EST_PriorityRule estPr) {
+		this.pr = estPr.rule;
+		this.est = true;
+	}
+
+	@Override
+	public Result solve(Instance instance, long deadline) {
+		ResourceOrder sol = new ResourceOrder(instance);
+		this.build(instance, sol);
+		Schedule schedule = sol.toSchedule();
+		// The solution is optimal if it reaches the lower bound
+		Result.ExitCause cause = schedule.makespan() <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Blocked;
+		return new Result(instance, schedule, cause);
+	}
+
+	/**
+	 * Builds an active schedule
+	 * @param instance The instance to solve
+	 * @param sol An empty ResourceOrder in which the tasks are put
+	 */
+	void build(Instance instance, ResourceOrder sol) {
+		this.build(instance, sol, null, 0);
+	}
+
+	/**
+	 * Builds an active schedule, possibly randomized : the task is then chosen uniformly in the
+	 * restricted candidate list, the tasks of the conflict set whose key is at most
+	 * minKey + alpha * (maxKey - minKey). The EST preference is not used in this case.
+	 * @param instance The instance to solve
+	 * @param sol An empty ResourceOrder in which the tasks are put
+	 * @param random The random generator, null to always choose the best task of the conflict set
+	 * @param alpha Between 0 (only the best tasks can be chosen) and 1 (all the conflict set can be chosen)
+	 */
+	void build(Instance instance, ResourceOrder sol, SplittableRandom random, double alpha) {
+		int numJobs = instance.numJobs;
+		int numTasks = instance.numTasks;
+
+		// For each job, the index of its next task to schedule (numTasks if it is done)
+		int[] nextTask = new int[numJobs];
+		// The next possible start time for each job and each machine
+		int[] nextStartTimeJobs = new int[numJobs];
+		int[] nextStartTimeMachines = new int[instance.numMachines];
+
+		for (int step = numJobs * numTasks; step > 0; step--) {
+			// We search the feasable task that can end first, its job and its machine
+			int minEndTime = Integer.MAX_VALUE;
+			int minJob = -1;
+			int machine = -1;
+			for (int job = 0; job < numJobs; job++) {
+				int task = nextTask[job];
+				if (task < numTasks) {
+					int m = instance.machine(job, task);
+					int endTime = Integer.max(nextStartTimeJobs[job], nextStartTimeMachines[m]) + instance.duration(job, task);
+					if (endTime < minEndTime) {
+						minEndTime = endTime;
+						minJob = job;
+						machine = m;
+					}
+				}
+			}
+
+			// Among the feasable tasks of this machine that can start before this end (the conflict set),
+			// we choose with the priority rule (ties are broken by the lowest job number)
+			int chosenJob;
+			if (random == null) {
+				chosenJob = this.bestInConflictSet(instance, machine, minEndTime, minJob, nextTask, nextStartTimeJobs, nextStartTimeMachines);
+			} else {
+				chosenJob = this.randomInConflictSet(instance, machine, minEndTime, minJob, nextTask, nextStartTimeJobs,
+						nextStartTimeMachines, random, alpha);
+			}
+			int chosenStartTime = Integer.max(nextStartTimeJobs[chosenJob], nextStartTimeMachines[machine]);
+
+			// We schedule the chosen task
+			int chosenTask = nextTask[chosenJob]++;
+			int endTime = chosenStartTime + instance.duration(chosenJob, chosenTask);
+			nextStartTimeJobs[chosenJob] = endTime;
+			nextStartTimeMachines[machine] = endTime;
+			sol.setTask(machine, sol.nextFreeSlot[machine]++, instance.taskID(chosenJob, chosenTask));
+		}
+	}
+
+	/**
+	 * @return Whether the feasable task of a job is in the conflict set of the machine : it is on the machine and
+	 * can start before minEndTime, or it is the task reaching minEndTime
+	 */
+	private static boolean inConflictSet(Instance instance, int machine, int minEndTime, int minJob, int job, int[] nextTask,
+			int[] nextStartTimeJobs, int[] nextStartTimeMachines) {
+		int task = nextTask[job];
+		return task < instance.numTasks && instance.machine(job, task) == machine
+				&& (Integer.max(nextStartTimeJobs[job], nextStartTimeMachines[machine]) < minEndTime || job == minJob);
+	}
+
+	/**
+	 * @return The job of the best task of the conflict set according to the priority rule
+	 */
+	private int bestInConflictSet(Instance instance, int machine, int minEndTime, int minJob, int[] nextTask,
+			int[] nextStartTimeJobs, int[] nextStartTimeMachines) {
+		int chosenJob = -1;
+		int chosenStartTime = Integer.MAX_VALUE;
+		int chosenKey = Integer.MAX_VALUE;
+		for (int job = 0; job < instance.numJobs; job++) {
+			if (inConflictSet(instance, machine, minEndTime, minJob, job, nextTask, nextStartTimeJobs, nextStartTimeMachines)) {
+				int startTime = Integer.max(nextStartTimeJobs[job], nextStartTimeMachines[machine]);
+				int key = this.pr.key(instance, job, nextTask[job]);
+				boolean better;
+				if (this.est && startTime != chosenStartTime) {
+					better = startTime < chosenStartTime;
+				} else {
+					better = key < chosenKey;
+				}
+				if (chosenJob == -1 || better) {
+					chosenJob = job;
+					chosenStartTime = startTime;
+					chosenKey = key;
+				}
+			}
+		}
+		return chosenJob;
+	}
+
+	/**
+	 * @return The job of a task chosen uniformly in the restricted candidate list of the conflict set
+	 */
+	private int randomInConflictSet(Instance instance, int machine, int minEndTime, int minJob, int[] nextTask,
+			int[] nextStartTimeJobs, int[] nextStartTimeMachines, SplittableRandom random, double alpha) {
+		int minKey = Integer.MAX_VALUE;
+		int maxKey = Integer.MIN_VALUE;
+		for (int job = 0; job < instance.numJobs; job++) {
+			if (inConflictSet(instance, machine, minEndTime, minJob, job, nextTask, nextStartTimeJobs, nextStartTimeMachines)) {
+				int key = this.pr.key(instance, job, nextTask[job]);
+				minKey = Math.min(minKey, key);
+				maxKey = Math.max(maxKey, key);
+			}
+		}
+
+		// We choose uniformly among the candidates (reservoir sampling)
+		double threshold = minKey + alpha * ((double) maxKey - minKey);
+		int chosenJob = -1;
+		int nbCandidates = 0;
+		for (int job = 0; job < instance.numJobs; job++) {
+			if (inConflictSet(instance, machine, minEndTime, minJob, job, nextTask, nextStartTimeJobs, nextStartTimeMachines)
+					&& this.pr.key(instance, job, nextTask[job]) <= threshold) {
+				nbCandidates++;
+				if (random.nextInt(nbCandidates) == 0) {
+					chosenJob = job;
+				}
+			}
+		}
+		return chosenJob;
+	}
+}
@@ -0,0 +1,78 @@
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * This class allows you to use a GRASP (Greedy Randomized Adaptive Search Procedure) for solving a JobShop
+ * problem : randomized Giffler and Thompson constructions, in which the task of each conflict set is chosen
+ * in a restricted candidate list of the priority rule, are repeated until the deadline.
+ * <br>
+ * They are made by several threads, each one with its own random stream (split from a single seed),
+ * and the best solution is shared between them through an Incumbent. The exception of a thread that fails
+ * is thrown by solve (see Workers).
+ */
+public class GraspSolver implements Solver {
+
+	/** The priority rule of the constructions */
+	private final PriorityRule pr;
+
+	/** Size of the restricted candidate lists, between 0 (greedy) and 1 (all the conflict set) */
+	private final double alpha;
+
+	/** The number of threads making constructions */
+	private final int threads;
+
+	/** The seed from which the random streams of the threads are split */
+	private final long seed;
+
+	/**
+	 * Constructor
+	 * @param pr The priority rule of the constructions
+	 * @param alpha Size of the restricted candidate lists, between 0 (greedy) and 1 (all the conflict set)
+	 * @param threads The number of threads making constructions
+	 * @param seed The seed from which the random streams of the threads are split
+	 */
+	public GraspSolver(PriorityRule pr, double alpha, int threads, long seed) {
+		this.pr = pr;
+		this.alpha = alpha;
+		this.threads = threads;
+		this.seed = seed;
+	}
+
+	@Override
+	public Result solve(Instance instance, long deadline) {
+		Incumbent incumbent = new Incumbent();
+		GifflerThompsonSolver builder = new GifflerThompsonSolver(this.pr);
+
+		SplittableRandom root = new SplittableRandom(this.seed);
+		List<Runnable> workers = new ArrayList<>();
+		for (int t = 0; t < this.threads; t++) {
+			SplittableRandom random = root.split();
+			workers.add(() -> {
+				ResourceOrder order = new ResourceOrder(instance);
+				// Each thread makes at least one construction, so that there is always a solution,
+				// and they all stop once a solution reaches the lower bound
+				do {
+					builder.build(instance, order, random, this.alpha);
+					if (incumbent.offer(order, order.makespan())) {
+						// The incumbent now owns this ResourceOrder
+						order = new ResourceOrder(instance);
+					} else {
+						order.clear();
+					}
+				} while (incumbent.makespan() > instance.lowerBound() && deadline - System.currentTimeMillis() > 1);
+			});
+		}
+		Workers.runAll(workers);
+
+		Result.ExitCause cause = incumbent.makespan() <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+		return new Result(instance, incumbent.order().toSchedule(), cause);
+	}
+}
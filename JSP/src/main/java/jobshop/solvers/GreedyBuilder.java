@@ -0,0 +1,101 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * Greedy construction of solutions with a priority rule, in O(n log(numJobs)) : the feasable
+ * tasks (the next task of each job) are kept in a heap ordered by the key of the rule.
+ * All the buffers are allocated once, so that a builder can be used for many constructions
+ * on the same instance (but by a single thread).
+ */
+class GreedyBuilder {
+
+	/** The instance of the solutions built */
+	private final Instance instance;
+
+	/** The next possible start time for each job */
+	private final int[] nextStartTimeJobs;
+
+	/** The next possible start time for each machine */
+	private final int[] nextStartTimeMachines;
+
+	/** For each job, the index of its next task to schedule (its feasable task) */
+	private final int[] nextTask;
+
+	/** The jobs that still have tasks to schedule, ordered by the priority of their feasable task */
+	private final JobHeap feasable;
+
+	/**
+	 * Constructor
+	 * @param instance The instance of the solutions to build
+	 */
+	GreedyBuilder(Instance instance) {
+		this.instance = instance;
+		this.nextStartTimeJobs = new int[instance.numJobs];
+		this.nextStartTimeMachines = new int[instance.numMachines];
+		this.nextTask = new int[instance.numJobs];
+		this.feasable = new JobHeap(instance.numJobs);
+	}
+
+	/**
+	 * Builds a solution with a priority rule.
+	 * <br>
+	 * With est, the tasks are ordered by starting time first, and then by the rule. As the starting
+	 * times can only increase, the starting time stored in the heap for a task is a lower bound of
+	 * its real one, so it is only updated when the task reaches the top of the heap (lazy re-keying).
+	 * @param rule The priority rule
+	 * @param est Whether the task with the earliest starting time must be chosen first
+	 * @param sol An empty ResourceOrder in which the tasks are put
+	 */
+	void build(PriorityRule rule, boolean est, ResourceOrder sol) {
+		int numJobs = this.instance.numJobs;
+		int numTasks = this.instance.numTasks;
+
+		// At the beginning, the starting times are 0 and the first task of each job is feasable
+		Arrays.fill(this.nextStartTimeJobs, 0);
+		Arrays.fill(this.nextStartTimeMachines, 0);
+		Arrays.fill(this.nextTask, 0);
+		this.feasable.clear();
+		for (int job = 0; job < numJobs; job++) {
+			this.feasable.push(job, 0, rule.key(this.instance, job, 0));
+		}
+
+		while (!this.feasable.isEmpty()) {
+			// We take the task we should do now in function of the priority rule used
+			int storedStartTime = this.feasable.peekPrimary();
+			int currentJob = this.feasable.pop();
+			int currentTask = this.nextTask[currentJob];
+			int currentMachine = this.instance.machine(currentJob, currentTask);
+			int currentStartTime = Integer.max(this.nextStartTimeJobs[currentJob], this.nextStartTimeMachines[currentMachine]);
+
+			if (est && currentStartTime > storedStartTime) {
+				// Its machine has been used since it was added : its real starting time is later
+				this.feasable.push(currentJob, currentStartTime, rule.key(this.instance, currentJob, currentTask));
+				continue;
+			}
+
+			// We update the next start times of the job and of the machine
+			int currentEndTime = currentStartTime + this.instance.duration(currentJob, currentTask);
+			this.nextStartTimeJobs[currentJob] = currentEndTime;
+			this.nextStartTimeMachines[currentMachine] = currentEndTime;
+
+			// We add the current task to the solution
+			int nextFreeSlot = sol.nextFreeSlot[currentMachine]++;
+			sol.setTask(currentMachine, nextFreeSlot, this.instance.taskID(currentJob, currentTask));
+
+			// If it's not the last task of the job, the next one becomes feasable
+			this.nextTask[currentJob]++;
+			if (currentTask + 1 < numTasks) {
+				int startTime = 0;
+				if (est) {
+					int nextMachine = this.instance.machine(currentJob, currentTask + 1);
+					startTime = Integer.max(currentEndTime, this.nextStartTimeMachines[nextMachine]);
+				}
+				this.feasable.push(currentJob, startTime, rule.key(this.instance, currentJob, currentTask + 1));
+			}
+		}
+	}
+}
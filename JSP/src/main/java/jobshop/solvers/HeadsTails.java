@@ -0,0 +1,457 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+
+/**
+ * Heads and tails of all the tasks of a ResourceOrder, seen as a disjunctive graph.
+ * <br>
+ * <br>
+ * The head of a task is the length of the longest path from the beginning of the
+ * schedule to the task (i.e. its earliest start time), and its tail is the length
+ * of the longest path from the end of the task to the end of the schedule.
+ * A task is on a critical path if and only if head + duration + tail = makespan.
+ * <br>
+ * <br>
+ * Once they are computed, they allow to estimate the makespan of a neighbor
+ * obtained by swapping two adjacent tasks of a machine in constant time
+ * (Taillard's estimation), instead of decoding the whole neighbor.
+ * All arrays are indexed by task ID (see Task.getTaskID) and are reused
+ * from one computation to the other.
+ * <br>
+ * <br>
+ * When such a swap is applied (see applySwap), only the heads of the tasks after the
+ * swapped pair in the graph and the tails of the tasks before it are updated, instead of
+ * computing them all again.
+ */
+public class HeadsTails {
+
+	/** The instance of the ResourceOrders we are working on */
+	private final Instance instance;
+
+	/** The head of each task */
+	private final int[] heads;
+
+	/** The tail of each task */
+	private final int[] tails;
+
+	/** All the task IDs, sorted in a topological order of the graph */
+	private final int[] topologicalOrder;
+
+	/** For each job, the number of tasks already sorted (scratch buffer) */
+	private final int[] nextOnJob;
+
+	/** For each machine, the number of tasks already sorted (scratch buffer) */
+	private final int[] nextOnMachine;
+
+	/** The tasks whose head or tail has to be updated after a swap, in a circular buffer (scratch buffer) */
+	private final int[] toUpdate;
+
+	/** Whether each task is in the toUpdate buffer (scratch buffer) */
+	private final boolean[] queued;
+
+	/** The makespan of the last ResourceOrder computed */
+	private int makespan;
+
+	/**
+	 * The critical blocks of the last ResourceOrder computed, stored as
+	 * (machine, index of the first task, index of the last task) triplets
+	 */
+	private final int[] blocks;
+
+	/** The number of critical blocks stored in the blocks array */
+	private int nbBlocks;
+
+	/**
+	 * Constructor
+	 * @param instance The instance of the ResourceOrders we will work on
+	 */
+	public HeadsTails(Instance instance) {
+		this.instance = instance;
+		int nbTasks = instance.numJobs * instance.numTasks;
+		this.heads = new int[nbTasks];
+		this.tails = new int[nbTasks];
+		this.topologicalOrder = new int[nbTasks];
+		this.nextOnJob = new int[instance.numJobs];
+		this.nextOnMachine = new int[instance.numMachines];
+		this.toUpdate = new int[nbTasks];
+		this.queued = new boolean[nbTasks];
+		// A block contains at least two tasks, so there can not be more than nbTasks / 2 blocks
+		this.blocks = new int[3 * (nbTasks / 2 + 1)];
+	}
+
+	/**
+	 * Computes the heads and tails of all the tasks of the given ResourceOrder.
+	 * @param order A complete ResourceOrder
+	 * @return false if the ResourceOrder contains a cycle (no heads and tails can be computed)
+	 */
+	public boolean compute(ResourceOrder order) {
+		int numTasks = this.instance.numTasks;
+		int numJobs = this.instance.numJobs;
+
+		// Forward pass : we sort the tasks in a topological order (the topological
+		// order array is used as a queue) and compute the heads on the way
+		Arrays.fill(this.nextOnJob, 0);
+		Arrays.fill(this.nextOnMachine, 0);
+		int queueEnd = 0;
+		for (int m = 0; m < this.instance.numMachines; m++) {
+			int first = order.taskAt(m, 0);
+			if (this.instance.taskOf(first) == 0) {
+				this.topologicalOrder[queueEnd++] = first;
+			}
+		}
+
+		this.makespan = 0;
+		for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+			int id = this.topologicalOrder[queueStart];
+			int job = this.instance.jobOf(id);
+			int task = this.instance.taskOf(id);
+			int machine = this.instance.machine(id);
+			int index = order.indexOf(id);
+
+			// The task can start once its predecessors on the job and on the machine are done
+			int head = 0;
+			if (task > 0) {
+				head = this.heads[id - 1] + this.instance.duration(id - 1);
+			}
+			if (index > 0) {
+				int pred = order.taskAt(machine, index - 1);
+				head = Math.max(head, this.heads[pred] + this.instance.duration(pred));
+			}
+			this.heads[id] = head;
+			this.makespan = Math.max(this.makespan, head + this.instance.duration(id));
+
+			this.nextOnJob[job]++;
+			this.nextOnMachine[machine]++;
+
+			// The next task of the job is ready if all its predecessors on its machine are done
+			if (task + 1 < numTasks && order.indexOf(id + 1) == this.nextOnMachine[this.instance.machine(id + 1)]) {
+				this.topologicalOrder[queueEnd++] = id + 1;
+			}
+			// The next task of the machine is ready if all its predecessors on its job are done
+			if (index + 1 < numJobs) {
+				int succ = order.taskAt(machine, index + 1);
+				if (this.instance.taskOf(succ) == this.nextOnJob[this.instance.jobOf(succ)]) {
+					this.topologicalOrder[queueEnd++] = succ;
+				}
+			}
+		}
+
+		if (queueEnd < this.topologicalOrder.length) {
+			// Some tasks could never be sorted : there is a cycle
+			return false;
+		}
+
+		// Backward pass : we compute the tails in the reverse topological order
+		for (int k = queueEnd - 1; k >= 0; k--) {
+			int id = this.topologicalOrder[k];
+			int index = order.indexOf(id);
+
+			int tail = 0;
+			if (this.instance.taskOf(id) + 1 < numTasks) {
+				tail = this.instance.duration(id + 1) + this.tails[id + 1];
+			}
+			if (index + 1 < numJobs) {
+				int succ = order.taskAt(this.instance.machine(id), index + 1);
+				tail = Math.max(tail, this.instance.duration(succ) + this.tails[succ]);
+			}
+			this.tails[id] = tail;
+		}
+
+		return true;
+	}
+
+	/**
+	 * Swaps the tasks at positions index and index + 1 of the given machine, and updates the heads,
+	 * the tails and the makespan accordingly. The heads and tails must have been computed on this
+	 * ResourceOrder before (by compute or applySwap), and the two tasks must be in the same critical
+	 * block (see criticalBlocks), so that the swap does not create a cycle.
+	 * <br>
+	 * Only the heads of the successors of the two tasks in the graph (and the tails of their predecessors)
+	 * can change : they are updated from the swapped tasks, and the update stops at the tasks whose head
+	 * (or tail) does not change. On big instances, most tasks are not affected by one swap.
+	 * @param order The ResourceOrder on which the heads and tails have been computed
+	 * @param machine The machine on which the swap is made
+	 * @param index The position of the first task of the swap (the second one is at index + 1)
+	 */
+	public void applySwap(ResourceOrder order, int machine, int index) {
+		int u = order.taskAt(machine, index);
+		int v = order.taskAt(machine, index + 1);
+		order.swapTasks(machine, index, index + 1);
+
+		// Forward : v now comes first, then u, and the heads change after them
+		int size = 0;
+		size = this.enqueue(v, 0, size);
+		size = this.enqueue(u, 0, size);
+		for (int start = 0; size > 0; start = (start + 1) % this.toUpdate.length, size--) {
+			int id = this.toUpdate[start];
+			this.queued[id] = false;
+			int pos = order.indexOf(id);
+			int head = this.jobPredecessorEnd(id);
+			if (pos > 0) {
+				int pred = order.taskAt(this.instance.machine(id), pos - 1);
+				head = Math.max(head, this.heads[pred] + this.instance.duration(pred));
+			}
+			if (head != this.heads[id] || id == u || id == v) {
+				this.heads[id] = head;
+				// The successors of the task on its job and on its machine have to be updated
+				if (this.instance.taskOf(id) + 1 < this.instance.numTasks) {
+					size = this.enqueue(id + 1, start, size);
+				}
+				if (pos + 1 < this.instance.numJobs) {
+					size = this.enqueue(order.taskAt(this.instance.machine(id), pos + 1), start, size);
+				}
+			}
+		}
+
+		// Backward : u now comes last, then v, and the tails change before them
+		size = 0;
+		size = this.enqueue(u, 0, size);
+		size = this.enqueue(v, 0, size);
+		for (int start = 0; size > 0; start = (start + 1) % this.toUpdate.length, size--) {
+			int id = this.toUpdate[start];
+			this.queued[id] = false;
+			int pos = order.indexOf(id);
+			int tail = this.jobSuccessorTail(id);
+			if (pos + 1 < this.instance.numJobs) {
+				int succ = order.taskAt(this.instance.machine(id), pos + 1);
+				tail = Math.max(tail, this.instance.duration(succ) + this.tails[succ]);
+			}
+			if (tail != this.tails[id] || id == u || id == v) {
+				this.tails[id] = tail;
+				// The predecessors of the task on its job and on its machine have to be updated
+				if (this.instance.taskOf(id) > 0) {
+					size = this.enqueue(id - 1, start, size);
+				}
+				if (pos > 0) {
+					size = this.enqueue(order.taskAt(this.instance.machine(id), pos - 1), start, size);
+				}
+			}
+		}
+
+		// The schedule ends with the last task of one of the jobs
+		this.makespan = 0;
+		for (int last = this.instance.numTasks - 1; last < this.heads.length; last += this.instance.numTasks) {
+			this.makespan = Math.max(this.makespan, this.heads[last] + this.instance.duration(last));
+		}
+	}
+
+	/**
+	 * Adds a task at the end of the toUpdate buffer, unless it is already in it
+	 * @param id The ID of the task
+	 * @param start The position of the first task of the buffer
+	 * @param size The number of tasks in the buffer
+	 * @return The new number of tasks in the buffer
+	 */
+	private int enqueue(int id, int start, int size) {
+		if (this.queued[id]) {
+			return size;
+		}
+		this.queued[id] = true;
+		this.toUpdate[(start + size) % this.toUpdate.length] = id;
+		return size + 1;
+	}
+
+	/**
+	 * Extracts the critical blocks of the given ResourceOrder, in the order in which
+	 * they appear on a critical path. A block is a maximal subsequence of the critical path
+	 * such that all its tasks execute (consecutively) on the same machine, and it
+	 * contains at least two tasks. The heads and tails must have been computed on this
+	 * ResourceOrder before.
+	 * <br>
+	 * The blocks are then read with blockMachine, blockFirst and blockLast, and are
+	 * valid until the next call to this method.
+	 * @param order The ResourceOrder on which the heads and tails have been computed
+	 * @return The number of critical blocks
+	 */
+	public int criticalBlocks(ResourceOrder order) {
+		int numTasks = this.instance.numTasks;
+
+		// We go back along the critical path, starting from the first job ending at the makespan
+		int current = numTasks - 1;
+		while (this.heads[current] + this.instance.duration(current) != this.makespan) {
+			current += numTasks;
+		}
+
+		this.nbBlocks = 0;
+		int machine = this.instance.machine(current);
+		int last = order.indexOf(current);
+		int first = last;
+		while (this.heads[current] != 0) {
+			// The predecessor on the critical path is the one that ends when the task starts,
+			// we prefer the job predecessor (as Schedule.criticalPath does)
+			int pred;
+			if (this.jobPredecessorEnd(current) == this.heads[current]) {
+				pred = current - 1;
+			} else {
+				pred = order.taskAt(machine, first - 1);
+			}
+
+			int predMachine = this.instance.machine(pred);
+			if (predMachine != machine) {
+				this.addBlock(machine, first, last);
+				machine = predMachine;
+				last = order.indexOf(pred);
+			}
+			first = order.indexOf(pred);
+			current = pred;
+		}
+		this.addBlock(machine, first, last);
+
+		// The blocks have been found from the end of the path, we put them back in order
+		for (int i = 0, j = this.nbBlocks - 1; i < j; i++, j--) {
+			for (int k = 0; k < 3; k++) {
+				int tmp = this.blocks[3 * i + k];
+				this.blocks[3 * i + k] = this.blocks[3 * j + k];
+				this.blocks[3 * j + k] = tmp;
+			}
+		}
+		return this.nbBlocks;
+	}
+
+	/**
+	 * Stores a block if it contains at least two tasks
+	 * @param machine The machine of the block
+	 * @param first The index of the first task of the block on the machine
+	 * @param last The index of the last task of the block on the machine
+	 */
+	private void addBlock(int machine, int first, int last) {
+		if (first < last) {
+			this.blocks[3 * this.nbBlocks] = machine;
+			this.blocks[3 * this.nbBlocks + 1] = first;
+			this.blocks[3 * this.nbBlocks + 2] = last;
+			this.nbBlocks++;
+		}
+	}
+
+	/**
+	 * @param block The number of a block found by the last call to criticalBlocks
+	 * @return The machine on which the block is
+	 */
+	public int blockMachine(int block) {
+		return this.blocks[3 * block];
+	}
+
+	/**
+	 * @param block The number of a block found by the last call to criticalBlocks
+	 * @return The index of the first task of the block on its machine
+	 */
+	public int blockFirst(int block) {
+		return this.blocks[3 * block + 1];
+	}
+
+	/**
+	 * @param block The number of a block found by the last call to criticalBlocks
+	 * @return The index of the last task of the block on its machine
+	 */
+	public int blockLast(int block) {
+		return this.blocks[3 * block + 2];
+	}
+
+	/**
+	 * Estimates the makespan of the ResourceOrder obtained by swapping the tasks
+	 * at positions index and index + 1 of the given machine (N5 move), in constant time.
+	 * The heads and tails must have been computed on this ResourceOrder before,
+	 * and the two tasks must be in the same critical block (see criticalBlocks).
+	 * <br>
+	 * The estimation is the length of the longest path going through one of the two
+	 * swapped tasks once they have been swapped. It is exact when the new critical
+	 * path goes through one of them, and a lower bound of the new makespan otherwise.
+	 * @param order The ResourceOrder on which the heads and tails have been computed
+	 * @param machine The machine on which the swap is made
+	 * @param index The position of the first task of the swap (the second one is at index + 1)
+	 * @return The estimated makespan of the neighbor
+	 */
+	public int estimateSwap(ResourceOrder order, int machine, int index) {
+		// u is executed before v on the machine, they will be swapped
+		int u = order.taskAt(machine, index);
+		int v = order.taskAt(machine, index + 1);
+		int uDuration = this.instance.duration(u);
+		int vDuration = this.instance.duration(v);
+
+		// New heads : v now follows the machine predecessor of u, and u follows v
+		int machinePredEnd = 0;
+		if (index > 0) {
+			int pred = order.taskAt(machine, index - 1);
+			machinePredEnd = this.heads[pred] + this.instance.duration(pred);
+		}
+		int vHead = Math.max(this.jobPredecessorEnd(v), machinePredEnd);
+		int uHead = Math.max(this.jobPredecessorEnd(u), vHead + vDuration);
+
+		// New tails : u is now followed by the machine successor of v, and v is followed by u
+		int machineSuccTail = 0;
+		if (index + 2 < this.instance.numJobs) {
+			int succ = order.taskAt(machine, index + 2);
+			machineSuccTail = this.instance.duration(succ) + this.tails[succ];
+		}
+		int uTail = Math.max(this.jobSuccessorTail(u), machineSuccTail);
+		int vTail = Math.max(this.jobSuccessorTail(v), uDuration + uTail);
+
+		return Math.max(vHead + vDuration + vTail, uHead + uDuration + uTail);
+	}
+
+	/**
+	 * @param id The ID of a task
+	 * @return The end time of the predecessor of the task on its job (0 if there is none)
+	 */
+	private int jobPredecessorEnd(int id) {
+		if (this.instance.taskOf(id) == 0) {
+			return 0;
+		}
+		return this.heads[id - 1] + this.instance.duration(id - 1);
+	}
+
+	/**
+	 * @param id The ID of a task
+	 * @return The duration plus the tail of the successor of the task on its job (0 if there is none)
+	 */
+	private int jobSuccessorTail(int id) {
+		if (this.instance.taskOf(id) + 1 == this.instance.numTasks) {
+			return 0;
+		}
+		return this.instance.duration(id + 1) + this.tails[id + 1];
+	}
+
+	/**
+	 * @param t A task
+	 * @return The head of the task (its earliest start time)
+	 */
+	public int head(Task t) {
+		return this.heads[t.getTaskID(this.instance.numTasks)];
+	}
+
+	/**
+	 * @param t A task
+	 * @return The tail of the task
+	 */
+	public int tail(Task t) {
+		return this.tails[t.getTaskID(this.instance.numTasks)];
+	}
+
+	/**
+	 * @param id The ID of a task
+	 * @return The slack of the task : how much it can be delayed without increasing
+	 * the makespan (0 for the tasks on a critical path)
+	 */
+	public int slack(int id) {
+		return this.makespan - this.heads[id] - this.instance.duration(id) - this.tails[id];
+	}
+
+	/**
+	 * @param t A task
+	 * @return The slack of the task
+	 */
+	public int slack(Task t) {
+		return this.slack(t.getTaskID(this.instance.numTasks));
+	}
+
+	/**
+	 * @return The makespan of the last ResourceOrder computed
+	 */
+	public int makespan() {
+		return this.makespan;
+	}
+}
@@ -0,0 +1,70 @@
+package jobshop.solvers;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * The best solution found so far by the threads of a parallel solver. It is shared without any lock :
+ * a solution is only published if it is better than the current one, with a compare-and-set.
+ */
+public class Incumbent {
+
+	/** A solution and its makespan, never modified once published */
+	private static final class Entry {
+		final ResourceOrder order;
+		final int makespan;
+
+		Entry(ResourceOrder order, int makespan) {
+			this.order = order;
+			this.makespan = makespan;
+		}
+	}
+
+	/** The current best solution */
+	private final AtomicReference<Entry> best = new AtomicReference<>(new Entry(null, Integer.MAX_VALUE));
+
+	/**
+	 * @return The makespan of the best solution (Integer.MAX_VALUE if there is none yet)
+	 */
+	public int makespan() {
+		return this.best.get().makespan;
+	}
+
+	/**
+	 * @return The best solution (null if there is none yet), which must not be modified
+	 */
+	public ResourceOrder order() {
+		return this.best.get().order;
+	}
+
+	/**
+	 * Reads the best solution once, so that its makespan is the one of the solution returned
+	 * (calling makespan then order could return a solution published in between).
+	 * @param makespan A makespan
+	 * @return The best solution if its makespan is lower than the given one (null otherwise), which must not be modified
+	 */
+	public ResourceOrder orderBetterThan(int makespan) {
+		Entry current = this.best.get();
+		return current.makespan < makespan ? current.order : null;
+	}
+
+	/**
+	 * Publishes a solution if it is better than the best one.
+	 * @param order The solution, which must not be modified afterwards if it is accepted
+	 * @param makespan Its makespan
+	 * @return true if it is now the best solution
+	 */
+	public boolean offer(ResourceOrder order, int makespan) {
+		Entry entry = new Entry(order, makespan);
+		while (true) {
+			Entry current = this.best.get();
+			if (makespan >= current.makespan) {
+				return false;
+			}
+			if (this.best.compareAndSet(current, entry)) {
+				return true;
+			}
+		}
+	}
+}
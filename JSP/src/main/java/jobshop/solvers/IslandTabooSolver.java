@@ -0,0 +1,125 @@
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * This class allows you to use an island model of taboo searches for solving a JobShop problem :
+ * each thread (island) runs its own taboo trajectory, with its own forbidden swaps, from its own
+ * initial solution. The first island starts from the EST_LRPT greedy solution, like the TabooSolver,
+ * and the other ones from randomized Giffler and Thompson constructions.
+ * <br>
+ * The islands are on a ring. Each one publishes its best solution (its elite) without any lock,
+ * and periodically reads the elite of the next island : if it is better than its own best solution,
+ * its trajectory continues from it (migration).
+ * <br>
+ * All the islands stop as soon as one of them reaches the lower bound of the instance. The exception of an
+ * island that fails is thrown by solve (see Workers).
+ */
+public class IslandTabooSolver implements Solver {
+
+	/** The size of the restricted candidate lists of the randomized initial solutions */
+	private static final double ALPHA = 0.3;
+
+	/** The number of islands (threads) */
+	private final int islands;
+
+	/** The number of iterations a swap is forbidden, for the first island (it varies a little between islands) */
+	private final int tabooDuration;
+
+	/** The number of iterations between two migrations */
+	private final int migrationPeriod;
+
+	/** The seed of the randomized initial solutions */
+	private final long seed;
+
+	/**
+	 * Constructor
+	 * @param islands The number of islands (threads)
+	 * @param tabooDuration The number of iterations a swap is forbidden, for the first island
+	 * (the island i uses tabooDuration + i % 5, to diversify the trajectories)
+	 * @param migrationPeriod The number of iterations between two migrations
+	 * @param seed The seed of the randomized initial solutions
+	 */
+	public IslandTabooSolver(int islands, int tabooDuration, int migrationPeriod, long seed) {
+		this.islands = islands;
+		this.tabooDuration = tabooDuration;
+		this.migrationPeriod = migrationPeriod;
+		this.seed = seed;
+	}
+
+	@Override
+	public Result solve(Instance instance, long deadline) {
+		// The elite of each island
+		Incumbent[] elites = new Incumbent[this.islands];
+		for (int i = 0; i < this.islands; i++) {
+			elites[i] = new Incumbent();
+		}
+
+		// Set when an island has reached the lower bound
+		AtomicBoolean optimal = new AtomicBoolean(false);
+
+		SplittableRandom root = new SplittableRandom(this.seed);
+		List<Runnable> workers = new ArrayList<>();
+		for (int i = 0; i < this.islands; i++) {
+			int island = i;
+			SplittableRandom random = root.split();
+			workers.add(() -> this.runIsland(instance, island, random, elites, optimal, deadline));
+		}
+		Workers.runAll(workers);
+
+		// The best of the elites
+		Incumbent best = elites[0];
+		for (Incumbent elite : elites) {
+			if (elite.makespan() < best.makespan()) {
+				best = elite;
+			}
+		}
+		// An elite may reach the lower bound on the last iteration, without the optimal flag being set
+		Result.ExitCause cause = best.makespan() <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+		return new Result(instance, best.order().toSchedule(), cause);
+	}
+
+	/**
+	 * Runs the taboo trajectory of an island until the deadline, or until an island reaches the lower bound
+	 */
+	private void runIsland(Instance instance, int island, SplittableRandom random, Incumbent[] elites, AtomicBoolean optimal, long deadline) {
+		ResourceOrder start;
+		if (island == 0) {
+			start = new ResourceOrder(new GreedySolver(EST_PriorityRule.EST_LRPT).solve(instance, deadline).schedule);
+		} else {
+			start = new ResourceOrder(instance);
+			new GifflerThompsonSolver(PriorityRule.LRPT).build(instance, start, random, ALPHA);
+		}
+
+		TabooSearch search = new TabooSearch(instance, start, this.tabooDuration + island % 5, null);
+		Incumbent elite = elites[island];
+		Incumbent next = elites[(island + 1) % this.islands];
+		elite.offer(search.best(), search.bestMakespan());
+
+		while (!optimal.get() && deadline - System.currentTimeMillis() > 1) {
+			if (search.bestMakespan() <= instance.lowerBound()) {
+				optimal.set(true);
+				break;
+			}
+			if (search.step()) {
+				elite.offer(search.best(), search.bestMakespan());
+			}
+			if (search.iteration() % this.migrationPeriod == 0) {
+				// Migration : we continue from the elite of the next island if it is better
+				ResourceOrder immigrant = next.orderBetterThan(search.bestMakespan());
+				if (immigrant != null) {
+					search.restartFrom(immigrant);
+					elite.offer(search.best(), search.bestMakespan());
+				}
+			}
+		}
+	}
+}
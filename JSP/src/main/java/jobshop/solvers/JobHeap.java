@@ -0,0 +1,112 @@
+package jobshop.solvers;
+
+/**
+ * A binary min-heap of jobs, stored in primitive arrays. Each job is in the heap at most once
+ * (through its next task to schedule) and is ordered by (primary key, secondary key, job number).
+ * <br>
+ * It is used by the greedy constructions, where the primary key is the starting time of the task
+ * (for the EST rules, 0 otherwise) and the secondary key is the key of the priority rule.
+ */
+class JobHeap {
+
+	/** The jobs in the heap, heap[0] being the minimum */
+	private final int[] heap;
+
+	/** The primary key of each job (indexed by job) */
+	private final int[] primary;
+
+	/** The secondary key of each job (indexed by job) */
+	private final int[] secondary;
+
+	/** The number of jobs in the heap */
+	private int size;
+
+	/**
+	 * Constructor
+	 * @param numJobs The number of jobs of the instance
+	 */
+	JobHeap(int numJobs) {
+		this.heap = new int[numJobs];
+		this.primary = new int[numJobs];
+		this.secondary = new int[numJobs];
+		this.size = 0;
+	}
+
+	/** Removes all the jobs of the heap */
+	void clear() {
+		this.size = 0;
+	}
+
+	boolean isEmpty() {
+		return this.size == 0;
+	}
+
+	/**
+	 * Adds a job, which must not already be in the heap
+	 * @param job The job
+	 * @param primaryKey Its primary key
+	 * @param secondaryKey Its secondary key
+	 */
+	void push(int job, int primaryKey, int secondaryKey) {
+		this.primary[job] = primaryKey;
+		this.secondary[job] = secondaryKey;
+		// We go up from the last position until the parent is lower
+		int i = this.size++;
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (!this.lower(job, this.heap[parent])) {
+				break;
+			}
+			this.heap[i] = this.heap[parent];
+			i = parent;
+		}
+		this.heap[i] = job;
+	}
+
+	/**
+	 * @return The primary key of the job with the lowest keys (the heap must not be empty)
+	 */
+	int peekPrimary() {
+		return this.primary[this.heap[0]];
+	}
+
+	/**
+	 * Removes the job with the lowest keys (the heap must not be empty)
+	 * @return The removed job
+	 */
+	int pop() {
+		int top = this.heap[0];
+		int last = this.heap[--this.size];
+		// We go down from the root with the last job until its children are greater
+		int i = 0;
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= this.size) {
+				break;
+			}
+			if (child + 1 < this.size && this.lower(this.heap[child + 1], this.heap[child])) {
+				child++;
+			}
+			if (!this.lower(this.heap[child], last)) {
+				break;
+			}
+			this.heap[i] = this.heap[child];
+			i = child;
+		}
+		this.heap[i] = last;
+		return top;
+	}
+
+	/**
+	 * @return true if the job j1 must be before the job j2
+	 */
+	private boolean lower(int j1, int j2) {
+		if (this.primary[j1] != this.primary[j2]) {
+			return this.primary[j1] < this.primary[j2];
+		}
+		if (this.secondary[j1] != this.secondary[j2]) {
+			return this.secondary[j1] < this.secondary[j2];
+		}
+		return j1 < j2;
+	}
+}
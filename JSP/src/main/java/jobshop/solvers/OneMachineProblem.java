@@ -0,0 +1,193 @@
+package jobshop.solvers;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+
+import jobshop.LowerBounds;
+
+/**
+ * The one-machine problem with heads and tails : the tasks of a machine have to be sequenced, each task starting
+ * after its head and being followed by its tail, so as to minimize max(end + tail). It is the subproblem of the
+ * shifting bottleneck (see ShiftingBottleneckSolver), solved by the branch and bound of Carlier (1982).
+ * <br>
+ * <br>
+ * Each node is solved with Schrage's heuristic : at any time the machine is free, run the released task with the
+ * longest tail. If the critical block of this schedule contains a task c with a shorter tail than its last task,
+ * c interferes with the tasks J after it in the block, and the two children put c after all of J (its head is
+ * raised) or before all of J (its tail is raised). Otherwise the schedule of the node is optimal. The nodes are
+ * pruned with the preemptive one-machine bound (see LowerBounds.Jackson).
+ * <br>
+ * <br>
+ * The buffers are kept from one problem to the other.
+ */
+class OneMachineProblem {
+
+	/** The maximum number of nodes of the branch and bound : the best schedule found is returned after it */
+	private static final int MAX_NODES = 1000;
+
+	/** The heads, durations and tails of the current node */
+	private final int[] heads, durations, tails;
+	/** The schedule of Schrage's heuristic on the current node : the tasks in order, and the start of each task */
+	private final int[] sequence, starts;
+	/** The tasks, as (head, task) sorted by head (scratch buffer) */
+	private final long[] byHead;
+	/** The released tasks, as a binary max-heap keyed by tail (scratch buffer) */
+	private final int[] heap;
+	private final LowerBounds.Jackson jackson;
+
+	/**
+	 * Constructor
+	 * @param maxTasks The maximum number of tasks of a problem
+	 */
+	OneMachineProblem(int maxTasks) {
+		this.heads = new int[maxTasks];
+		this.durations = new int[maxTasks];
+		this.tails = new int[maxTasks];
+		this.sequence = new int[maxTasks];
+		this.starts = new int[maxTasks];
+		this.byHead = new long[maxTasks];
+		this.heap = new int[maxTasks];
+		this.jackson = new LowerBounds.Jackson(maxTasks);
+	}
+
+	/**
+	 * @param n The number of tasks, numbered from 0 to n - 1
+	 * @param heads The head of each task (non-negative)
+	 * @param durations The duration of each task
+	 * @param tails The tail of each task
+	 * @param best Filled with the tasks in the order of the best schedule found (optimal unless MAX_NODES is reached)
+	 * @return The value max(end + tail) of this schedule
+	 */
+	int solve(int n, int[] heads, int[] durations, int[] tails, int[] best) {
+		System.arraycopy(durations, 0, this.durations, 0, n);
+		int bound = this.jackson.bound(n, heads, durations, tails);
+		int upperBound = Integer.MAX_VALUE;
+
+		// A node is the heads then the tails of its tasks
+		ArrayDeque<int[]> stack = new ArrayDeque<>();
+		int[] root = new int[2 * n];
+		System.arraycopy(heads, 0, root, 0, n);
+		System.arraycopy(tails, 0, root, n, n);
+		stack.push(root);
+
+		for (int nodes = 0; !stack.isEmpty() && nodes < MAX_NODES && upperBound > bound; nodes++) {
+			int[] node = stack.pop();
+			System.arraycopy(node, 0, this.heads, 0, n);
+			System.arraycopy(node, n, this.tails, 0, n);
+			if (this.jackson.bound(n, this.heads, this.durations, this.tails) >= upperBound) {
+				continue;
+			}
+
+			int value = this.schrage(n);
+			if (value < upperBound) {
+				upperBound = value;
+				System.arraycopy(this.sequence, 0, best, 0, n);
+			}
+
+			// The critical block : the last task b reaching the value, and the first task a of its block
+			int b = n - 1;
+			while (this.starts[this.sequence[b]] + this.durations[this.sequence[b]] + this.tails[this.sequence[b]] != value) {
+				b--;
+			}
+			int a = b;
+			while (a > 0 && this.starts[this.sequence[a - 1]] + this.durations[this.sequence[a - 1]] == this.starts[this.sequence[a]]) {
+				a--;
+			}
+			// The interfering task c : the last one of the block with a shorter tail than b
+			int tailB = this.tails[this.sequence[b]];
+			int c = b - 1;
+			while (c >= a && this.tails[this.sequence[c]] >= tailB) {
+				c--;
+			}
+			if (c < a) {
+				// The schedule of the node is optimal for the node
+				continue;
+			}
+
+			int minHead = Integer.MAX_VALUE;
+			int minTail = Integer.MAX_VALUE;
+			int work = 0;
+			for (int k = c + 1; k <= b; k++) {
+				int task = this.sequence[k];
+				minHead = Math.min(minHead, this.heads[task]);
+				minTail = Math.min(minTail, this.tails[task]);
+				work += this.durations[task];
+			}
+			int task = this.sequence[c];
+
+			// c before J, then c after J (explored first)
+			int[] before = node.clone();
+			before[n + task] = Math.max(before[n + task], work + minTail);
+			stack.push(before);
+			int[] after = node.clone();
+			after[task] = Math.max(after[task], minHead + work);
+			stack.push(after);
+		}
+		return upperBound;
+	}
+
+	/**
+	 * Schedules the tasks of the current node with Schrage's heuristic, in sequence and starts
+	 * @return The value max(end + tail) of the schedule
+	 */
+	private int schrage(int n) {
+		for (int i = 0; i < n; i++) {
+			this.byHead[i] = ((long) this.heads[i] << 32) | i;
+		}
+		Arrays.sort(this.byHead, 0, n);
+
+		int value = 0;
+		int time = 0;
+		int released = 0;
+		int heapSize = 0;
+		for (int k = 0; k < n; k++) {
+			if (heapSize == 0) {
+				time = Math.max(time, this.heads[(int) this.byHead[released]]);
+			}
+			while (released < n && this.heads[(int) this.byHead[released]] <= time) {
+				heapSize = this.push(heapSize, (int) this.byHead[released++]);
+			}
+			int task = this.heap[0];
+			heapSize = this.pop(heapSize);
+			this.sequence[k] = task;
+			this.starts[task] = time;
+			time += this.durations[task];
+			value = Math.max(value, time + this.tails[task]);
+		}
+		return value;
+	}
+
+	/** Adds a task to the max-heap keyed by tails, and returns the new size of the heap */
+	private int push(int size, int task) {
+		int i = size;
+		while (i > 0) {
+			int parent = (i - 1) / 2;
+			if (this.tails[this.heap[parent]] >= this.tails[task]) {
+				break;
+			}
+			this.heap[i] = this.heap[parent];
+			i = parent;
+		}
+		this.heap[i] = task;
+		return size + 1;
+	}
+
+	/** Removes the first task of the max-heap keyed by tails, and returns the new size of the heap */
+	private int pop(int size) {
+		int last = this.heap[--size];
+		int i = 0;
+		while (2 * i + 1 < size) {
+			int child = 2 * i + 1;
+			if (child + 1 < size && this.tails[this.heap[child + 1]] > this.tails[this.heap[child]]) {
+				child++;
+			}
+			if (this.tails[this.heap[child]] <= this.tails[last]) {
+				break;
+			}
+			this.heap[i] = this.heap[child];
+			i = child;
+		}
+		this.heap[i] = last;
+		return size;
+	}
+}
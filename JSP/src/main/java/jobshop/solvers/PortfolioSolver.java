@@ -0,0 +1,165 @@
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * This class runs a portfolio of taboo searches concurrently on one instance : each configuration
+ * gives the way to build the initial solution (Giffler and Thompson with a priority rule, randomized
+ * or not) and the taboo duration of the search made from it.
+ * <br>
+ * The threads take the configurations in turn until the deadline. The best solution is shared between
+ * them through an Incumbent, which allows to abandon the hopeless runs : the ones whose best solution is
+ * worse than the incumbent and has not been improved for a given number of iterations (the runs that
+ * stagnate for longer are also stopped, to give their thread to the next configuration). The exception of a
+ * thread that fails is thrown by solve (see Workers).
+ */
+public class PortfolioSolver implements Solver {
+
+	/**
+	 * A configuration of the portfolio
+	 */
+	public static class Configuration {
+		/** The priority rule of the Giffler and Thompson construction of the initial solution */
+		final PriorityRule rule;
+		/** The size of its restricted candidate lists (0 for a deterministic construction, see GraspSolver) */
+		final double alpha;
+		/** The number of iterations a swap is forbidden in the taboo search */
+		final int tabooDuration;
+
+		public Configuration(PriorityRule rule, double alpha, int tabooDuration) {
+			this.rule = rule;
+			this.alpha = alpha;
+			this.tabooDuration = tabooDuration;
+		}
+
+		@Override
+		public String toString() {
+			return "[Rule : " + this.rule + " | Alpha : " + this.alpha + " | Taboo duration : " + this.tabooDuration + "]";
+		}
+	}
+
+	/**
+	 * A run holding the best solution is only abandoned after STAGNATION_FACTOR * patience
+	 * iterations without improvement, to let the other configurations run
+	 */
+	private static final int STAGNATION_FACTOR = 4;
+
+	/** The configurations run by the portfolio */
+	private final List<Configuration> configurations;
+
+	/** The number of threads */
+	private final int threads;
+
+	/** The number of iterations without improvement after which a run worse than the incumbent is abandoned */
+	private final int patience;
+
+	/** The seed of the randomized constructions */
+	private final long seed;
+
+	/**
+	 * Constructor
+	 * @param configurations The configurations run by the portfolio. The deterministic ones (alpha = 0)
+	 * are only run once, the other ones are run again (with other seeds) until the deadline.
+	 * @param threads The number of threads
+	 * @param patience The number of iterations without improvement after which a run worse than
+	 * the best solution of all threads is abandoned
+	 * @param seed The seed of the randomized constructions
+	 */
+	public PortfolioSolver(List<Configuration> configurations, int threads, int patience, long seed) {
+		this.configurations = new ArrayList<>(configurations);
+		this.threads = threads;
+		this.patience = patience;
+		this.seed = seed;
+	}
+
+	/**
+	 * @return A portfolio mixing deterministic and randomized starts and several taboo durations
+	 */
+	public static List<Configuration> defaultConfigurations() {
+		return Arrays.asList(
+				new Configuration(PriorityRule.LRPT, 0, 12),
+				new Configuration(PriorityRule.LRPT, 0, 15),
+				new Configuration(PriorityRule.LRPT, 0.2, 10),
+				new Configuration(PriorityRule.LRPT, 0.5, 15),
+				new Configuration(PriorityRule.LPT, 0.2, 10),
+				new Configuration(PriorityRule.SPT, 0.3, 14));
+	}
+
+	@Override
+	public Result solve(Instance instance, long deadline) {
+		Incumbent incumbent = new Incumbent();
+		// The number of the next run, its configuration is run % configurations.size()
+		AtomicInteger nextRun = new AtomicInteger();
+
+		List<Runnable> workers = new ArrayList<>();
+		for (int t = 0; t < this.threads; t++) {
+			workers.add(() -> {
+				// Each thread makes at least one run, so that there is always a solution,
+				// and they all stop once a solution reaches the lower bound
+				do {
+					int run = nextRun.getAndIncrement();
+					Configuration c = this.configurations.get(run % this.configurations.size());
+					if (run >= this.configurations.size() && c.alpha == 0) {
+						// It would give the same run again
+						if (!this.hasRandomizedConfiguration()) {
+							break;
+						}
+						continue;
+					}
+					this.run(instance, c, new SplittableRandom(this.seed + run), incumbent, deadline);
+				} while (incumbent.makespan() > instance.lowerBound() && deadline - System.currentTimeMillis() > 1);
+			});
+		}
+		Workers.runAll(workers);
+
+		Result.ExitCause cause = incumbent.makespan() <= instance.lowerBound() ? Result.ExitCause.ProvedOptimal : Result.ExitCause.Timeout;
+		return new Result(instance, incumbent.order().toSchedule(), cause);
+	}
+
+	/**
+	 * @return true if at least one configuration is randomized
+	 */
+	private boolean hasRandomizedConfiguration() {
+		for (Configuration c : this.configurations) {
+			if (c.alpha > 0) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Makes one run : builds the initial solution, then makes a taboo search from it until the deadline,
+	 * until it is hopeless, or until a solution reaches the lower bound.
+	 */
+	private void run(Instance instance, Configuration c, SplittableRandom random, Incumbent incumbent, long deadline) {
+		ResourceOrder start = new ResourceOrder(instance);
+		new GifflerThompsonSolver(c.rule).build(instance, start, c.alpha > 0 ? random : null, c.alpha);
+
+		TabooSearch search = new TabooSearch(instance, start, c.tabooDuration, null);
+		incumbent.offer(search.best(), search.bestMakespan());
+
+		int lastImprovement = 0;
+		while (incumbent.makespan() > instance.lowerBound() && deadline - System.currentTimeMillis() > 1) {
+			if (search.step()) {
+				lastImprovement = search.iteration();
+				incumbent.offer(search.best(), search.bestMakespan());
+			} else {
+				// A run that does not progress anymore is abandoned, sooner if another run has found better
+				int limit = (search.bestMakespan() > incumbent.makespan()) ? this.patience : STAGNATION_FACTOR * this.patience;
+				if (search.iteration() - lastImprovement > limit) {
+					return;
+				}
+			}
+		}
+	}
+}
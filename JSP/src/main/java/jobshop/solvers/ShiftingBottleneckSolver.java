@@ -0,0 +1,290 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * This class allows you to use the shifting bottleneck heuristic (Adams, Balas and Zawack, 1988) for solving a
+ * JobShop problem.
+ * <br>
+ * The machines are sequenced one by one in a partial ResourceOrder. At each step, for each machine not sequenced
+ * yet, we solve the one-machine problem of its tasks (see OneMachineProblem), their heads and tails being computed
+ * in the graph of the jobs and of the machines already sequenced. The bottleneck is the machine whose problem has
+ * the highest value : it is sequenced with the optimal sequence of its problem. Then each machine already sequenced
+ * is sequenced again with the other ones fixed, as long as the longest path of the graph decreases.
+ */
+public class ShiftingBottleneckSolver implements Solver {
+
+	/** The maximum number of times the machines already sequenced are sequenced again after each bottleneck */
+	private final int reoptimizationRounds;
+
+	/**
+	 * Constructor
+	 * @param reoptimizationRounds The maximum number of times the machines already sequenced are sequenced again
+	 * after each bottleneck
+	 */
+	public ShiftingBottleneckSolver(int reoptimizationRounds) {
+		this.reoptimizationRounds = reoptimizationRounds;
+	}
+
+	@Override
+	public Result solve(Instance instance, long deadline) {
+		ResourceOrder order = new Builder(instance).build(this.reoptimizationRounds, deadline);
+		Schedule schedule = order.toSchedule();
+		Result.ExitCause cause;
+		if (schedule.makespan() <= instance.lowerBound()) {
+			cause = Result.ExitCause.ProvedOptimal;
+		} else if (System.currentTimeMillis() >= deadline) {
+			cause = Result.ExitCause.Timeout;
+		} else {
+			cause = Result.ExitCause.Blocked;
+		}
+		return new Result(instance, schedule, cause);
+	}
+
+	/**
+	 * The construction of a solution of an instance, with its buffers.
+	 */
+	private static final class Builder {
+		private final Instance instance;
+		private final int numJobs;
+		private final int nbTasks;
+
+		/** The partial solution : only the machines marked as sequenced are taken into account */
+		private final ResourceOrder order;
+		private final boolean[] sequenced;
+
+		/** The head and tail of each task in the graph of the jobs and of the sequenced machines */
+		private final int[] heads, tails;
+		/** The tasks in a topological order of this graph, and the rank of each task in it */
+		private final int[] topologicalOrder, rank;
+		/** The number of predecessors not sorted yet of each task (scratch buffer) */
+		private final int[] predecessorsLeft;
+
+		/** The one-machine problem of a machine, indexed by job, and its best sequence */
+		private final OneMachineProblem oneMachine;
+		private final int[] machineHeads, machineDurations, machineTails, machineSequence;
+		/** The previous sequence of a machine sequenced again (as task IDs) */
+		private final int[] previousSequence;
+		/** The tasks of a machine sequenced topologically, as (rank, task) (scratch buffer) */
+		private final long[] byRank;
+
+		Builder(Instance instance) {
+			this.instance = instance;
+			this.numJobs = instance.numJobs;
+			this.nbTasks = instance.numJobs * instance.numTasks;
+			this.order = new ResourceOrder(instance);
+			this.sequenced = new boolean[instance.numMachines];
+			this.heads = new int[this.nbTasks];
+			this.tails = new int[this.nbTasks];
+			this.topologicalOrder = new int[this.nbTasks];
+			this.rank = new int[this.nbTasks];
+			this.predecessorsLeft = new int[this.nbTasks];
+			this.oneMachine = new OneMachineProblem(this.numJobs);
+			this.machineHeads = new int[this.numJobs];
+			this.machineDurations = new int[this.numJobs];
+			this.machineTails = new int[this.numJobs];
+			this.machineSequence = new int[this.numJobs];
+			this.previousSequence = new int[this.numJobs];
+			this.byRank = new long[this.numJobs];
+		}
+
+		/**
+		 * @return A complete ResourceOrder. If the deadline is reached, the machines not sequenced yet are
+		 * sequenced in a topological order of the graph.
+		 */
+		ResourceOrder build(int reoptimizationRounds, long deadline) {
+			for (int step = 0; step < this.instance.numMachines; step++) {
+				this.computeHeadsTails();
+				if (System.currentTimeMillis() >= deadline) {
+					for (int m = 0; m < this.instance.numMachines; m++) {
+						if (!this.sequenced[m]) {
+							this.sequenceTopologically(m);
+						}
+					}
+					break;
+				}
+
+				// The bottleneck : the machine whose one-machine problem has the highest value
+				int bottleneck = -1;
+				int highest = -1;
+				for (int m = 0; m < this.instance.numMachines; m++) {
+					if (!this.sequenced[m]) {
+						int value = this.solveMachine(m);
+						if (value > highest) {
+							highest = value;
+							bottleneck = m;
+						}
+					}
+				}
+				this.solveMachine(bottleneck);
+				this.insert(bottleneck);
+
+				// Reoptimization of the other sequenced machines, as long as the longest path decreases
+				for (int round = 0; round < reoptimizationRounds; round++) {
+					boolean improved = false;
+					for (int m = 0; m < this.instance.numMachines; m++) {
+						if (m != bottleneck && this.sequenced[m] && System.currentTimeMillis() < deadline) {
+							improved |= this.reoptimize(m);
+						}
+					}
+					if (!improved) {
+						break;
+					}
+				}
+			}
+			return this.order;
+		}
+
+		/**
+		 * Sequences a machine again, the other sequenced machines being fixed. The previous sequence is kept if the
+		 * longest path of the graph does not decrease.
+		 * @return true if it decreased
+		 */
+		private boolean reoptimize(int machine) {
+			int makespan = this.computeHeadsTails();
+			for (int i = 0; i < this.numJobs; i++) {
+				this.previousSequence[i] = this.order.taskAt(machine, i);
+			}
+			this.sequenced[machine] = false;
+			this.computeHeadsTails();
+			this.solveMachine(machine);
+			this.insert(machine);
+			if (this.computeHeadsTails() < makespan) {
+				return true;
+			}
+			for (int i = 0; i < this.numJobs; i++) {
+				this.order.setTask(machine, i, this.previousSequence[i]);
+			}
+			return false;
+		}
+
+		/**
+		 * Solves the one-machine problem of a machine not sequenced, with the heads and tails of the graph : its best
+		 * sequence (of jobs) is in machineSequence
+		 * @return The value of this sequence
+		 */
+		private int solveMachine(int machine) {
+			for (int job = 0; job < this.numJobs; job++) {
+				int id = this.taskOn(machine, job);
+				this.machineHeads[job] = this.heads[id];
+				this.machineDurations[job] = this.instance.duration(id);
+				this.machineTails[job] = this.tails[id];
+			}
+			return this.oneMachine.solve(this.numJobs, this.machineHeads, this.machineDurations, this.machineTails,
+					this.machineSequence);
+		}
+
+		/**
+		 * Sequences a machine in the order of machineSequence. If it creates a cycle in the graph (the heads and
+		 * tails of the one-machine problem do not contain all the precedences of the graph), the machine is
+		 * sequenced in a topological order of the graph instead.
+		 */
+		private void insert(int machine) {
+			for (int i = 0; i < this.numJobs; i++) {
+				this.order.setTask(machine, i, this.taskOn(machine, this.machineSequence[i]));
+			}
+			this.order.nextFreeSlot[machine] = this.numJobs;
+			this.sequenced[machine] = true;
+			if (this.computeHeadsTails() < 0) {
+				this.sequenced[machine] = false;
+				this.computeHeadsTails();
+				this.sequenceTopologically(machine);
+			}
+		}
+
+		/** Sequences a machine in the topological order of the graph, which cannot create a cycle */
+		private void sequenceTopologically(int machine) {
+			for (int job = 0; job < this.numJobs; job++) {
+				int id = this.taskOn(machine, job);
+				this.byRank[job] = ((long) this.rank[id] << 32) | id;
+			}
+			Arrays.sort(this.byRank);
+			for (int i = 0; i < this.numJobs; i++) {
+				this.order.setTask(machine, i, (int) this.byRank[i]);
+			}
+			this.order.nextFreeSlot[machine] = this.numJobs;
+			this.sequenced[machine] = true;
+		}
+
+		/**
+		 * Computes the heads and tails of the tasks in the graph of the jobs and of the sequenced machines
+		 * @return The length of the longest path of the graph, or -1 if it contains a cycle
+		 */
+		private int computeHeadsTails() {
+			int queueEnd = 0;
+			for (int id = 0; id < this.nbTasks; id++) {
+				this.heads[id] = 0;
+				this.predecessorsLeft[id] = (this.instance.taskOf(id) > 0 ? 1 : 0) + (this.machinePredecessor(id) >= 0 ? 1 : 0);
+				if (this.predecessorsLeft[id] == 0) {
+					this.topologicalOrder[queueEnd++] = id;
+				}
+			}
+
+			for (int queueStart = 0; queueStart < queueEnd; queueStart++) {
+				int id = this.topologicalOrder[queueStart];
+				this.rank[id] = queueStart;
+				int end = this.heads[id] + this.instance.duration(id);
+				if (this.instance.taskOf(id) + 1 < this.instance.numTasks) {
+					queueEnd = this.release(id + 1, end, queueEnd);
+				}
+				int next = this.machineSuccessor(id);
+				if (next >= 0) {
+					queueEnd = this.release(next, end, queueEnd);
+				}
+			}
+			if (queueEnd < this.nbTasks) {
+				return -1;
+			}
+
+			int makespan = 0;
+			for (int k = this.nbTasks - 1; k >= 0; k--) {
+				int id = this.topologicalOrder[k];
+				int tail = 0;
+				if (this.instance.taskOf(id) + 1 < this.instance.numTasks) {
+					tail = this.instance.duration(id + 1) + this.tails[id + 1];
+				}
+				int next = this.machineSuccessor(id);
+				if (next >= 0) {
+					tail = Math.max(tail, this.instance.duration(next) + this.tails[next]);
+				}
+				this.tails[id] = tail;
+				makespan = Math.max(makespan, this.heads[id] + this.instance.duration(id) + tail);
+			}
+			return makespan;
+		}
+
+		/** A predecessor of a task ending at end has been sorted, the task is sorted once all of them are */
+		private int release(int id, int end, int queueEnd) {
+			this.heads[id] = Math.max(this.heads[id], end);
+			if (--this.predecessorsLeft[id] == 0) {
+				this.topologicalOrder[queueEnd++] = id;
+			}
+			return queueEnd;
+		}
+
+		/** @return The task before a task on its machine, or -1 if there is none or if the machine is not sequenced */
+		private int machinePredecessor(int id) {
+			int machine = this.instance.machine(id);
+			int index = this.order.indexOf(id);
+			return (this.sequenced[machine] && index > 0) ? this.order.taskAt(machine, index - 1) : -1;
+		}
+
+		/** @return The task after a task on its machine, or -1 if there is none or if the machine is not sequenced */
+		private int machineSuccessor(int id) {
+			int machine = this.instance.machine(id);
+			int index = this.order.indexOf(id);
+			return (this.sequenced[machine] && index + 1 < this.numJobs) ? this.order.taskAt(machine, index + 1) : -1;
+		}
+
+		/** @return The ID of the task of a job on a machine */
+		private int taskOn(int machine, int job) {
+			return this.instance.taskID(job, this.instance.task_with_machine(job, machine));
+		}
+	}
+}
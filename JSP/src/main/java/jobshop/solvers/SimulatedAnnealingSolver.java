@@ -0,0 +1,177 @@
+package jobshop.solvers;
+
+import java.util.SplittableRandom;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Solver;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * This class allows you to use simulated annealing for solving a JobShop problem.
+ * <br>
+ * A move swaps two adjacent tasks of a critical block (which never creates a cycle), drawn at random among all
+ * of them. Its makespan is estimated in constant time with the heads and tails of the current solution (see
+ * HeadsTails.estimateSwap) : the move is accepted if it is not worse, and otherwise with probability
+ * exp(-delta / temperature). Only the accepted moves update the heads and tails (see HeadsTails.applySwap) and
+ * the critical blocks, so the rejected ones cost a few array accesses.
+ * <br>
+ * The cooling depends on the time : the temperature decreases geometrically from its initial value to its final
+ * value between the beginning of the search and the deadline, which must be finite. With a budget of moves, it
+ * depends on the number of moves instead, so that the search only depends on the seed (and on the initial
+ * solution), the deadline only stopping it. The solver giving the initial
+ * solution only gets a share of the time (see START_TIME_SHARE), so that the annealing always has time to cool.
+ * The result reports the number of moves evaluated per second.
+ */
+public class SimulatedAnnealingSolver implements Solver {
+
+	/** The number of moves between two computations of the temperature (and checks of the time) */
+	private static final int MOVES_PER_STEP = 1024;
+
+	/** The share of the time until the deadline given to the solver of the initial solution */
+	private static final double START_TIME_SHARE = 0.1;
+
+	/** The solver giving the initial solution */
+	private final Solver start;
+
+	/** The initial and final temperatures, relative to the average duration of the tasks */
+	private final double initialTemperature, finalTemperature;
+
+	/** The seed of the moves and of their acceptance */
+	private final long seed;
+
+	/** The number of moves over which the temperature decreases, 0 if it decreases until the deadline */
+	private final long maxMoves;
+
+	/**
+	 * Constructor of an annealing cooled until the deadline
+	 * @param start The solver giving the initial solution
+	 * @param initialTemperature The initial temperature, relative to the average duration of the tasks
+	 * @param finalTemperature The temperature at the deadline, relative to the average duration of the tasks
+	 * @param seed The seed of the moves and of their acceptance
+	 */
+	public SimulatedAnnealingSolver(Solver start, double initialTemperature, double finalTemperature, long seed) {
+		this(start, initialTemperature, finalTemperature, seed, 0);
+	}
+
+	/**
+	 * Constructor
+	 * @param start The solver giving the initial solution
+	 * @param initialTemperature The initial temperature, relative to the average duration of the tasks (positive)
+	 * @param finalTemperature The final temperature, relative to the average duration of the tasks (positive)
+	 * @param seed The seed of the moves and of their acceptance
+	 * @param maxMoves The number of moves over which the temperature decreases (the search stops after them),
+	 * 0 to make it decrease until the deadline
+	 */
+	public SimulatedAnnealingSolver(Solver start, double initialTemperature, double finalTemperature, long seed, long maxMoves) {
+		if (!(initialTemperature > 0) || !(finalTemperature > 0)) {
+			throw new IllegalArgumentException("The temperatures must be positive : " + initialTemperature + ", " + finalTemperature);
+		}
+		if (maxMoves < 0) {
+			throw new IllegalArgumentException("The number of moves must be positive or 0 : " + maxMoves);
+		}
+		this.start = start;
+		this.initialTemperature = initialTemperature;
+		this.finalTemperature = finalTemperature;
+		this.seed = seed;
+		this.maxMoves = maxMoves;
+	}
+
+	@Override
+	public Result solve(Instance instance, long deadline) {
+		long startDeadline = System.currentTimeMillis();
+		startDeadline += (long) ((deadline - startDeadline) * START_TIME_SHARE);
+		ResourceOrder order = new ResourceOrder(this.start.solve(instance, startDeadline).schedule);
+		HeadsTails headsTails = new HeadsTails(instance);
+		headsTails.compute(order);
+		int makespan = headsTails.makespan();
+		ResourceOrder best = order.copy();
+		int bestMakespan = makespan;
+
+		double averageDuration = 0;
+		for (int id = 0; id < instance.numJobs * instance.numTasks; id++) {
+			averageDuration += instance.duration(id);
+		}
+		averageDuration /= instance.numJobs * instance.numTasks;
+		double initial = this.initialTemperature * averageDuration;
+		double ratio = this.finalTemperature / this.initialTemperature;
+
+		SplittableRandom random = new SplittableRandom(this.seed);
+		// The critical blocks of the current solution, and the number of swaps in the blocks before each one
+		int nbBlocks = headsTails.criticalBlocks(order);
+		int[] swapsBefore = new int[instance.numMachines * instance.numJobs + 1];
+		int nbSwaps = countSwaps(headsTails, nbBlocks, swapsBefore);
+
+		long begin = System.currentTimeMillis();
+		long now = begin;
+		long moves = 0;
+		long maxMoves = this.maxMoves > 0 ? this.maxMoves : Long.MAX_VALUE;
+		while (now < deadline && moves < maxMoves && nbSwaps > 0 && bestMakespan > instance.lowerBound()) {
+			double progress;
+			if (this.maxMoves > 0) {
+				progress = (double) moves / this.maxMoves;
+			} else {
+				progress = (double) (now - begin) / (deadline - begin);
+			}
+			double temperature = initial * Math.pow(ratio, progress);
+
+			for (int k = 0; k < MOVES_PER_STEP && moves < maxMoves && nbSwaps > 0; k++) {
+				moves++;
+				// A random swap of the critical blocks : the block is found by a binary search on swapsBefore
+				int swap = random.nextInt(nbSwaps);
+				int low = 0;
+				int high = nbBlocks - 1;
+				while (low < high) {
+					int middle = (low + high + 1) >>> 1;
+					if (swapsBefore[middle] <= swap) {
+						low = middle;
+					} else {
+						high = middle - 1;
+					}
+				}
+				int machine = headsTails.blockMachine(low);
+				int index = headsTails.blockFirst(low) + swap - swapsBefore[low];
+
+				int delta = headsTails.estimateSwap(order, machine, index) - makespan;
+				if (delta > 0 && random.nextDouble() >= Math.exp(-delta / temperature)) {
+					continue;
+				}
+				headsTails.applySwap(order, machine, index);
+				makespan = headsTails.makespan();
+				if (makespan < bestMakespan) {
+					bestMakespan = makespan;
+					best = order.copy();
+				}
+				nbBlocks = headsTails.criticalBlocks(order);
+				nbSwaps = countSwaps(headsTails, nbBlocks, swapsBefore);
+			}
+			now = System.currentTimeMillis();
+		}
+
+		Result.ExitCause cause;
+		if (bestMakespan <= instance.lowerBound()) {
+			cause = Result.ExitCause.ProvedOptimal;
+		} else if (nbSwaps == 0 || moves >= maxMoves) {
+			// The critical path has no block (the solution is optimal, but it is not proved by the lower bound),
+			// or all the moves have been made
+			cause = Result.ExitCause.Blocked;
+		} else {
+			cause = Result.ExitCause.Timeout;
+		}
+		double seconds = Math.max(now - begin, 1) / 1000.0;
+		return new Result(instance, best.toSchedule(), cause, moves, moves / seconds);
+	}
+
+	/**
+	 * @param swapsBefore Filled with the number of swaps of the blocks before each block
+	 * @return The number of swaps of adjacent tasks in the critical blocks
+	 */
+	private static int countSwaps(HeadsTails headsTails, int nbBlocks, int[] swapsBefore) {
+		int count = 0;
+		for (int b = 0; b < nbBlocks; b++) {
+			swapsBefore[b] = count;
+			count += headsTails.blockLast(b) - headsTails.blockFirst(b);
+		}
+		return count;
+	}
+}
@@ -0,0 +1,426 @@
+package jobshop.solvers;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+
+/**
+ * One trajectory of the taboo search, made one iteration at a time (see step), so that
+ * it can be driven by the TabooSolver or by the parallel solvers.
+ * <br>
+ * At each iteration, we move to the best allowed neighbor of the Nowicki and Smutnicki neighborhood
+ * (swaps at the beginning and at the end of the critical blocks), even if it is worse than the current
+ * solution, and the opposite swap is then forbidden for some iterations (the tenure, fixed or drawn
+ * in a range at each iteration).
+ * <br>
+ * A forbidden neighbor is allowed anyway if it is better than the best solution (aspiration criterion),
+ * and if all the neighbors are forbidden we move to the best of them rather than staying in place.
+ * <br>
+ * A stagnating search can restart from its best solution, slightly perturbed (see restartFromBest).
+ * <br>
+ * The heads and tails of the current solution are kept up to date from one iteration to the other :
+ * they are only updated around the swapped tasks when we move to a neighbor (see HeadsTails.applySwap).
+ * <br>
+ * The makespans of the neighbors decoded in parallel are cached by the hash of their ResourceOrder, and the
+ * iteration at which each solution has been visited is recorded to detect the cycles of the trajectory.
+ */
+class TabooSearch {
+
+	/**
+	 * Computes the exact makespan of some neighbors of a ResourceOrder, splitting them
+	 * between the threads of the pool. Each leaf works on the scratch ResourceOrder of its thread,
+	 * synchronized with the ResourceOrder (and decodes it with the buffers of its thread), so the
+	 * ResourceOrder is only read and nothing is allocated.
+	 */
+	private static class NeighborsEvaluation extends RecursiveAction {
+		private static final long serialVersionUID = 1L;
+		
+		/** The ResourceOrder of which we evaluate the neighbors */
+		private final ResourceOrder order;
+		/** The scratch ResourceOrder of each thread */
+		private final ThreadLocal<ResourceOrder> scratches;
+		/** The machine of each swap */
+		private final int[] machines;
+		/** The position of the first task of each swap (the second one is just after it) */
+		private final int[] indexes;
+		/** The makespan of each neighbor, filled by the evaluation (except if it is already known) */
+		private final int[] makespans;
+		/** The range of neighbors evaluated by this action */
+		private final int from, to;
+		/** The maximum number of neighbors evaluated by a leaf */
+		private final int grain;
+		
+		NeighborsEvaluation(ResourceOrder order, ThreadLocal<ResourceOrder> scratches, int[] machines, int[] indexes,
+				int[] makespans, int from, int to, int grain) {
+			this.order = order;
+			this.scratches = scratches;
+			this.machines = machines;
+			this.indexes = indexes;
+			this.makespans = makespans;
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+		}
+		
+		@Override
+		protected void compute() {
+			if (this.to - this.from <= this.grain) {
+				ResourceOrder scratch = this.scratches.get();
+				scratch.copyFrom(this.order);
+				for (int i = this.from; i < this.to; i++) {
+					if (this.makespans[i] != ZobristTable.ABSENT) {
+						continue;
+					}
+					DescentSolver.Swap swap = new DescentSolver.Swap(this.machines[i], this.indexes[i], this.indexes[i] + 1);
+					swap.applyOn(scratch);
+					this.makespans[i] = scratch.makespan();
+					swap.undoOn(scratch);
+				}
+			} else {
+				int middle = (this.from + this.to) >>> 1;
+				invokeAll(new NeighborsEvaluation(this.order, this.scratches, this.machines, this.indexes, this.makespans, this.from, middle, this.grain),
+						new NeighborsEvaluation(this.order, this.scratches, this.machines, this.indexes, this.makespans, middle, this.to, this.grain));
+			}
+		}
+	}
+
+	/** The instance we are solving */
+	private final Instance instance;
+
+	/**
+	 * The pool in which the neighbors are evaluated exactly, or null if their
+	 * makespan is only estimated with the heads and tails of the current solution
+	 */
+	private final ForkJoinPool pool;
+
+	/** The scratch ResourceOrder of each thread of the pool, reused by the evaluations of all the iterations */
+	private final ThreadLocal<ResourceOrder> scratches;
+
+	/** The current solution, modified in place */
+	private ResourceOrder currentOrder;
+	/** The makespan of the current solution */
+	private int currentMakespan;
+
+	/** A copy of the best solution found */
+	private ResourceOrder best;
+	/** The makespan of the best solution found */
+	private int bestMakespan;
+
+	/**
+	 * The heads and tails of the current solution (always up to date), used to find its blocks,
+	 * to estimate its neighbors and to get its makespan
+	 */
+	private final HeadsTails headsTails;
+
+	/** The forbidden swaps */
+	private final TabooStructure forbiddenSwaps;
+
+	/** The range of the number of iterations a swap is forbidden */
+	private final int minTenure, maxTenure;
+
+	/** The generator of the tenures and of the perturbations */
+	private final SplittableRandom random;
+
+	/** The iteration of the last improvement or restart */
+	private int lastImprovement;
+
+	/**
+	 * The neighbors of the current solution : the swap of the tasks at positions indexes[i] and
+	 * indexes[i] + 1 of machines[i], and their (estimated or exact) makespan. There are at most two per block
+	 * and a block contains at least two tasks.
+	 */
+	private final int[] machines, indexes, makespans;
+
+	/** Whether each neighbor is forbidden */
+	private final boolean[] forbidden;
+
+	/** The number of bits of the hashes used by the tables (2^16 entries each) */
+	private static final int TABLE_BITS = 16;
+
+	/** The makespan of the neighbors decoded so far (the most recent ones), by hash */
+	private final ZobristTable makespanCache;
+
+	/** The last iteration at which each solution has been the current one (the most recent ones), by hash */
+	private final ZobristTable visits;
+
+	/** The number of iterations since the current solution was previously visited, 0 if it is a new one */
+	private int cycleLength;
+
+	/** The iteration counter */
+	private int k;
+
+	/**
+	 * Constructor
+	 * @param instance The instance we are solving
+	 * @param start The initial solution (it is copied)
+	 * @param tabooDuration The number of iterations a swap is forbidden
+	 * @param pool The pool in which the neighbors are evaluated exactly, or null to estimate them
+	 */
+	TabooSearch(Instance instance, ResourceOrder start, int tabooDuration, ForkJoinPool pool) {
+		this(instance, start, tabooDuration, tabooDuration, new SplittableRandom(0), pool);
+	}
+
+	/**
+	 * Constructor
+	 * @param instance The instance we are solving
+	 * @param start The initial solution (it is copied)
+	 * @param minTenure The minimum number of iterations a swap is forbidden
+	 * @param maxTenure The maximum number of iterations a swap is forbidden
+	 * @param random The generator of the tenures and of the perturbations
+	 * @param pool The pool in which the neighbors are evaluated exactly, or null to estimate them
+	 */
+	TabooSearch(Instance instance, ResourceOrder start, int minTenure, int maxTenure, SplittableRandom random, ForkJoinPool pool) {
+		this.instance = instance;
+		this.pool = pool;
+		this.scratches = ThreadLocal.withInitial(() -> new ResourceOrder(instance));
+		this.makespanCache = new ZobristTable(TABLE_BITS);
+		this.visits = new ZobristTable(TABLE_BITS);
+		this.currentOrder = start.copy();
+		this.headsTails = new HeadsTails(instance);
+		this.headsTails.compute(this.currentOrder);
+		this.currentMakespan = this.headsTails.makespan();
+		this.best = start.copy();
+		this.bestMakespan = this.currentMakespan;
+		int nbTasks = instance.numJobs * instance.numTasks;
+		this.forbiddenSwaps = new TabooStructure(minTenure, instance);
+		this.minTenure = minTenure;
+		this.maxTenure = maxTenure;
+		this.random = random;
+		this.lastImprovement = 0;
+		this.machines = new int[nbTasks];
+		this.indexes = new int[nbTasks];
+		this.makespans = new int[nbTasks];
+		this.forbidden = new boolean[nbTasks];
+		this.k = 0;
+	}
+
+	/**
+	 * The tenure range of an instance, from the number of jobs and of machines (as proposed by Zhang et al.) :
+	 * the minimum is 10 + numJobs / numMachines, and the maximum 1.4 times the minimum (1.5 times when there
+	 * are more than twice as many jobs as machines, the critical paths being longer).
+	 * @return {minimum, maximum}
+	 */
+	static int[] tenureRange(Instance instance) {
+		int min = 10 + instance.numJobs / instance.numMachines;
+		int max = (instance.numJobs <= 2 * instance.numMachines) ? (int) (1.4 * min) : (int) (1.5 * min);
+		return new int[] { min, max };
+	}
+
+	/**
+	 * Makes one iteration of the search : moves to the best allowed neighbor (or to the best neighbor if
+	 * they are all forbidden), if there is one.
+	 * @return true if the best solution has been improved
+	 */
+	boolean step() {
+		int k = this.k++;
+		ResourceOrder currentOrder = this.currentOrder;
+		HeadsTails headsTails = this.headsTails;
+
+		// We get all the blocks from the critical path
+		int nbBlocks = headsTails.criticalBlocks(currentOrder);
+
+		int nbNeighbors = 0;
+		for (int b = 0; b < nbBlocks; b++) {
+			int machine = headsTails.blockMachine(b);
+			int first = headsTails.blockFirst(b);
+			int last = headsTails.blockLast(b);
+			// Nowicki and Smutnicki neighborhood : we swap the two first tasks of the block
+			// and the two last ones (only one swap if the block has two tasks)
+			int nbSwaps = (last - first == 1) ? 1 : 2;
+
+			for (int n = 0; n < nbSwaps; n++) {
+				int index = (n == 0) ? first : last - 1;
+				int t1 = currentOrder.taskAt(machine, index);
+				int t2 = currentOrder.taskAt(machine, index + 1);
+
+				this.machines[nbNeighbors] = machine;
+				this.indexes[nbNeighbors] = index;
+				this.forbidden[nbNeighbors] = !this.forbiddenSwaps.isAllowed(t1, t2, k);
+				nbNeighbors++;
+			}
+		}
+
+		if (this.pool == null) {
+			// The swapped tasks are adjacent on a critical path, so the makespan of the neighbors is
+			// estimated in constant time with the heads and tails instead of decoding them
+			for (int i = 0; i < nbNeighbors; i++) {
+				this.makespans[i] = headsTails.estimateSwap(currentOrder, this.machines[i], this.indexes[i]);
+			}
+		} else if (nbNeighbors > 0) {
+			// The neighbors are decoded in parallel, a few leaves per thread
+			// The neighbors which have already been decoded are looked up in the cache
+			for (int i = 0; i < nbNeighbors; i++) {
+				this.makespans[i] = this.makespanCache.get(currentOrder.hashAfterSwap(this.machines[i], this.indexes[i], this.indexes[i] + 1));
+			}
+			int grain = Math.max(1, nbNeighbors / (4 * this.pool.getParallelism()));
+			this.pool.invoke(new NeighborsEvaluation(currentOrder, this.scratches, this.machines, this.indexes, this.makespans, 0, nbNeighbors, grain));
+			for (int i = 0; i < nbNeighbors; i++) {
+				this.makespanCache.put(currentOrder.hashAfterSwap(this.machines[i], this.indexes[i], this.indexes[i] + 1), this.makespans[i]);
+			}
+		}
+
+		// Best allowed neighbor (with the lowest makespan), the first one in case of a tie : a forbidden
+		// neighbor is allowed if it improves the best solution (aspiration)
+		int chosen = -1;
+		for (int i = 0; i < nbNeighbors; i++) {
+			if ((!this.forbidden[i] || this.makespans[i] < this.bestMakespan)
+					&& (chosen == -1 || this.makespans[i] < this.makespans[chosen])) {
+				chosen = i;
+			}
+		}
+		// All the neighbors are forbidden : we take the best of them instead of staying in place
+		if (chosen == -1) {
+			for (int i = 0; i < nbNeighbors; i++) {
+				if (chosen == -1 || this.makespans[i] < this.makespans[chosen]) {
+					chosen = i;
+				}
+			}
+		}
+
+		if (chosen == -1) {
+			return false;
+		}
+		int bestMachine = this.machines[chosen];
+		int bestIndex = this.indexes[chosen];
+
+		// We forbid the opposite swap of the one we are making
+		// We make t1<->t2 so we forbid t2<->t1
+		int t1 = currentOrder.taskAt(bestMachine, bestIndex);
+		int t2 = currentOrder.taskAt(bestMachine, bestIndex + 1);
+		int tenure = (this.minTenure == this.maxTenure) ? this.minTenure : this.random.nextInt(this.minTenure, this.maxTenure + 1);
+		this.forbiddenSwaps.addTaboo(t2, t1, k, tenure);
+
+		// We move to the best neighbor, the heads and tails are only updated around the swapped tasks
+		headsTails.applySwap(currentOrder, bestMachine, bestIndex);
+		this.currentMakespan = headsTails.makespan();
+
+		// We check if the trajectory comes back to a solution it has already visited
+		int previousVisit = this.visits.get(currentOrder.hash());
+		this.cycleLength = (previousVisit == ZobristTable.ABSENT) ? 0 : k - previousVisit;
+		this.visits.put(currentOrder.hash(), k);
+
+		// We check if it is better than the best solution (it is only copied in this case)
+		if (this.currentMakespan < this.bestMakespan) {
+			this.improve(currentOrder.copy());
+			return true;
+		}
+		return false;
+	}
+
+	/**
+	 * Records a new best solution
+	 * @param order The new best solution, which must not be modified afterwards
+	 */
+	private void improve(ResourceOrder order) {
+		this.best = order;
+		this.bestMakespan = this.currentMakespan;
+		this.lastImprovement = this.k;
+	}
+
+	/**
+	 * Moves the search to another solution (e.g. an elite solution found by another search).
+	 * The forbidden swaps of the previous trajectory are forgotten, and the stagnation starts again from 0.
+	 * @param order The new current solution (it is copied)
+	 */
+	void restartFrom(ResourceOrder order) {
+		this.currentOrder = order.copy();
+		this.forbiddenSwaps.reset(this.k);
+		this.cycleLength = 0;
+		this.headsTails.compute(this.currentOrder);
+		this.currentMakespan = this.headsTails.makespan();
+		if (this.currentMakespan < this.bestMakespan) {
+			this.improve(order.copy());
+		}
+		this.lastImprovement = this.k;
+	}
+
+	/**
+	 * Restarts the search from its best solution, forgets the forbidden swaps, and makes some random moves
+	 * so that the new trajectory differs from the previous one.
+	 * @param kicks The number of random moves
+	 */
+	void restartFromBest(int kicks) {
+		this.restartFrom(this.best);
+		this.perturb(kicks);
+	}
+
+	/**
+	 * Makes some random moves from the current solution (e.g. to leave a cycle).
+	 * @param kicks The number of random moves
+	 */
+	void perturb(int kicks) {
+		for (int i = 0; i < kicks; i++) {
+			this.kick();
+		}
+		this.cycleLength = 0;
+	}
+
+	/**
+	 * Makes a random move of the neighborhood (allowed or not), and forbids the opposite one.
+	 * The best solution is updated if the move improves it.
+	 */
+	private void kick() {
+		int nbBlocks = this.headsTails.criticalBlocks(this.currentOrder);
+		if (nbBlocks == 0) {
+			return;
+		}
+		int b = this.random.nextInt(nbBlocks);
+		int machine = this.headsTails.blockMachine(b);
+		int index = this.random.nextBoolean() ? this.headsTails.blockFirst(b) : this.headsTails.blockLast(b) - 1;
+		int t1 = this.currentOrder.taskAt(machine, index);
+		int t2 = this.currentOrder.taskAt(machine, index + 1);
+		this.forbiddenSwaps.addTaboo(t2, t1, this.k, this.maxTenure);
+		this.headsTails.applySwap(this.currentOrder, machine, index);
+		this.currentMakespan = this.headsTails.makespan();
+		if (this.currentMakespan < this.bestMakespan) {
+			this.improve(this.currentOrder.copy());
+		}
+	}
+
+	/**
+	 * @return The number of iterations since the last improvement of the best solution (or the last restart)
+	 */
+	int stagnation() {
+		return this.k - this.lastImprovement;
+	}
+
+	/**
+	 * @return The number of iterations since the current solution was previously visited by the search,
+	 * 0 if it had never been visited (as far as the table of the visits remembers)
+	 */
+	int cycleLength() {
+		return this.cycleLength;
+	}
+
+	/**
+	 * @return The number of iterations made
+	 */
+	int iteration() {
+		return this.k;
+	}
+
+	/**
+	 * @return The makespan of the current solution
+	 */
+	int currentMakespan() {
+		return this.currentMakespan;
+	}
+
+	/**
+	 * @return The best solution found. It must not be modified, and it is never modified by the
+	 * search either (a new copy is made at each improvement), so it can be shared with other threads.
+	 */
+	ResourceOrder best() {
+		return this.best;
+	}
+
+	/**
+	 * @return The makespan of the best solution found
+	 */
+	int bestMakespan() {
+		return this.bestMakespan;
+	}
+}
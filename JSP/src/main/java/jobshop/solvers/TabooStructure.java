@@ -1,88 +1,166 @@
-/**
- * 
- */
-package jobshop.solvers;
-
-import jobshop.encodings.Task;
-
-/**
- * A structure in which we can store the taboo permutations
- * @author antho
- *
- */
-public class TabooStructure {
-
-	/**
-	 * The maximum duration for a permutation to be Taboo
-	 */
-	private final int tabooDuration;
-	
-	/**
-	 * A matrix with all the forbidden permutations : it stores the
-	 * number of the iteration when the permutation will be allowed.
-	 * The lines are the first task in the permutation, the columns
-	 * are the second task.
-	 * <br>
-	 * <br>
-	 * E.G. : Consider the following ResourceOrder<br>
-	 * machine 0 : (0,1) (1,2) (2,2)<br>
-	 * machine 1 : (0,2) (2,1) (1,1)<br>
-	 * ...<br>
-	 * <br>
-	 * If we make the Swap: machine = 0; t1 = 0; t2 = 1
-	 * then the permutation: machine = 0; t1 = 0; t2 = 1 will be
-	 * forbidden for the next <b>tabooDuration</b> iterations.<br>
-	 * To represent it, the value <b>currentIteration + tabooDuration</b>
-	 * will be stored in the matrix on line <b>Task(1,2).getTaskID(numTasks)</b>,
-	 * column <b>Task(0,1).getTaskID(numTasks)</b>.
-	 * <br>
-	 * <br>
-	 * Task.getTaskID(int numTasks) is a function I have added to
-	 * the task class to get an ID for each task that goes from 0 to
-	 * the total number of tasks. numTasks is the number of tasks for
-	 * each job.
-	 */
-	private int [][] tabooPerms;
-	
-	/**
-	 * Constructor
-	 * @param forbiddenDuration The duration for a permutation to be Taboo
-	 * @param nbTasks The total number of tasks. If there are 2 jobs with
-	 * 3 tasks each then nbTasks = 6.
-	 */
-	public TabooStructure(int forbiddenDuration, int nbTasks) {
-		this.tabooDuration = forbiddenDuration;
-		
-		this.tabooPerms = new int[nbTasks][nbTasks];
-	}
-	
-	/**
-	 * Function that adds a taboo permutation (t1<->t2) to the matrix
-	 * @param t1 The first task in the permutation
-	 * @param t2 The second task in the permutation
-	 * @param currentIteration The current iteration number 
-	 * @param numTasks The number of tasks there is in a job
-	 */
-	public void addTaboo(Task t1, Task t2, int currentIteration, int numTasks) {
-		int t1ID = t1.getTaskID(numTasks);
-		int t2ID = t2.getTaskID(numTasks);
-		
-		this.tabooPerms[t1ID][t2ID] = currentIteration + this.tabooDuration;
-	}
-	
-	/**
-	 * Function that tells you if the permutation (t1<->t2) is allowed
-	 * @param t1 The first task in the permutation
-	 * @param t2 The second task in the permutation
-	 * @param currentIteration The current iteration number 
-	 * @param numTasks The number of tasks there is in a job
-	 * @return A boolean telling whether the permutation is allowed or not
-	 */
-	public boolean isAllowed(Task t1, Task t2, int currentIteration, int numTasks) {
-		int t1ID = t1.getTaskID(numTasks);
-		int t2ID = t2.getTaskID(numTasks);
-		
-		return (this.tabooPerms[t1ID][t2ID] <= currentIteration);
-	}
-
-}
+/**
+ * 
+ */
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.Task;
+
+/**
+ * A structure in which we can store the taboo permutations
+ * @author antho
+ *
+ */
+public class TabooStructure {
+
+	/**
+	 * The maximum duration for a permutation to be Taboo
+	 */
+	private final int tabooDuration;
+	
+	/**
+	 * The instance, to get the job and the machine of a task from its ID
+	 */
+	private final Instance instance;
+	
+	/**
+	 * The number of jobs of the instance
+	 */
+	private final int numJobs;
+	
+	/**
+	 * All the forbidden permutations : it stores the number of the
+	 * iteration (shifted by <b>offset</b>) when the permutation will
+	 * be allowed.
+	 * <br>
+	 * <br>
+	 * Only two tasks on the same machine can be swapped, and a job
+	 * has exactly one task on each machine, so a permutation is
+	 * identified by its machine and the jobs of its two tasks.
+	 * The permutation of the task of job j1 with the task of job j2
+	 * on machine m is stored at index <b>(m * numJobs + j1) * numJobs + j2</b>.
+	 * It makes numMachines * numJobs² entries instead of the
+	 * (numJobs * numTasks)² of a matrix indexed by the tasks, and
+	 * the permutations of a machine are next to each other in memory.
+	 * <br>
+	 * <br>
+	 * E.G. : Consider the following ResourceOrder<br>
+	 * machine 0 : (0,1) (1,2) (2,2)<br>
+	 * machine 1 : (0,2) (2,1) (1,1)<br>
+	 * ...<br>
+	 * <br>
+	 * If we make the Swap: machine = 0; t1 = 0; t2 = 1
+	 * then the permutation: machine = 0; t1 = 0; t2 = 1 will be
+	 * forbidden for the next <b>tabooDuration</b> iterations.<br>
+	 * To represent it, the value <b>currentIteration + offset + tabooDuration</b>
+	 * will be stored at index <b>(0 * numJobs + 1) * numJobs + 0</b>
+	 * (the task (1,2) is before the task (0,1) once swapped).
+	 */
+	private final int[] tabooPerms;
+	
+	/**
+	 * The shift of the iteration numbers stored in tabooPerms : it
+	 * is increased by reset() so that all the stored permutations
+	 * become allowed without clearing the array.
+	 */
+	private int offset;
+	
+	/**
+	 * The highest value stored in tabooPerms
+	 */
+	private int latest;
+	
+	/**
+	 * Constructor
+	 * @param forbiddenDuration The duration for a permutation to be Taboo
+	 * @param instance The instance we are solving
+	 */
+	public TabooStructure(int forbiddenDuration, Instance instance) {
+		this.tabooDuration = forbiddenDuration;
+		this.instance = instance;
+		this.numJobs = instance.numJobs;
+		
+		this.tabooPerms = new int[instance.numMachines * instance.numJobs * instance.numJobs];
+		this.offset = 0;
+		this.latest = 0;
+	}
+	
+	/**
+	 * Index of the permutation of two tasks (of the same machine) in tabooPerms
+	 * @param t1ID The ID of the first task in the permutation
+	 * @param t2ID The ID of the second task in the permutation
+	 */
+	private int index(int t1ID, int t2ID) {
+		return (this.instance.machine(t1ID) * this.numJobs + this.instance.jobOf(t1ID)) * this.numJobs + this.instance.jobOf(t2ID);
+	}
+	
+	/**
+	 * Function that adds a taboo permutation (t1<->t2) to the structure
+	 * @param t1 The first task in the permutation
+	 * @param t2 The second task in the permutation
+	 * @param currentIteration The current iteration number 
+	 * @param numTasks The number of tasks there is in a job
+	 */
+	public void addTaboo(Task t1, Task t2, int currentIteration, int numTasks) {
+		this.addTaboo(t1.getTaskID(numTasks), t2.getTaskID(numTasks), currentIteration);
+	}
+	
+	/**
+	 * Function that adds a taboo permutation (t1<->t2) to the structure
+	 * @param t1ID The ID of the first task in the permutation
+	 * @param t2ID The ID of the second task in the permutation
+	 * @param currentIteration The current iteration number 
+	 */
+	public void addTaboo(int t1ID, int t2ID, int currentIteration) {
+		this.addTaboo(t1ID, t2ID, currentIteration, this.tabooDuration);
+	}
+	
+	/**
+	 * Function that adds a taboo permutation (t1<->t2) to the structure
+	 * for a given number of iterations (instead of the default duration)
+	 * @param t1ID The ID of the first task in the permutation
+	 * @param t2ID The ID of the second task in the permutation
+	 * @param currentIteration The current iteration number 
+	 * @param duration The number of iterations the permutation is forbidden
+	 */
+	public void addTaboo(int t1ID, int t2ID, int currentIteration, int duration) {
+		int end = currentIteration + this.offset + duration;
+		this.tabooPerms[this.index(t1ID, t2ID)] = end;
+		this.latest = Math.max(this.latest, end);
+	}
+	
+	/**
+	 * Function that tells you if the permutation (t1<->t2) is allowed
+	 * @param t1 The first task in the permutation
+	 * @param t2 The second task in the permutation
+	 * @param currentIteration The current iteration number 
+	 * @param numTasks The number of tasks there is in a job
+	 * @return A boolean telling whether the permutation is allowed or not
+	 */
+	public boolean isAllowed(Task t1, Task t2, int currentIteration, int numTasks) {
+		return this.isAllowed(t1.getTaskID(numTasks), t2.getTaskID(numTasks), currentIteration);
+	}
+	
+	/**
+	 * Function that tells you if the permutation (t1<->t2) is allowed
+	 * @param t1ID The ID of the first task in the permutation
+	 * @param t2ID The ID of the second task in the permutation
+	 * @param currentIteration The current iteration number 
+	 * @return A boolean telling whether the permutation is allowed or not
+	 */
+	public boolean isAllowed(int t1ID, int t2ID, int currentIteration) {
+		return (this.tabooPerms[this.index(t1ID, t2ID)] <= currentIteration + this.offset);
+	}
+	
+	/**
+	 * Function that allows all the permutations again, in constant time
+	 * (e.g. when the search restarts from another solution). The
+	 * iteration numbers given afterwards must not be lower than
+	 * currentIteration.
+	 * @param currentIteration The current iteration number 
+	 */
+	public void reset(int currentIteration) {
+		this.offset = Math.max(this.offset, this.latest - currentIteration);
+	}
+
+}
@@ -0,0 +1,66 @@
+package jobshop.solvers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runs the workers of a parallel solver, each one on its own thread, and waits until all of them are finished.
+ * <br>
+ * A worker that fails does not disappear in the pool : once all the workers are finished, its exception is
+ * thrown again to the caller (with the exceptions of the other failed workers as suppressed exceptions).
+ */
+final class Workers {
+
+	private Workers() {}
+
+	/**
+	 * Runs the workers and waits until all of them are finished. The workers must stop by themselves
+	 * (at the deadline of the solver). If the calling thread is interrupted, it still waits for them,
+	 * and its interrupt status is set again before returning.
+	 * @param workers The workers, run concurrently
+	 * @throws RuntimeException The exception of the first worker that failed (an Error is thrown as it is)
+	 */
+	static void runAll(List<Runnable> workers) {
+		ExecutorService pool = Executors.newFixedThreadPool(workers.size());
+		List<Future<?>> futures = new ArrayList<>();
+		for (Runnable worker : workers) {
+			futures.add(pool.submit(worker));
+		}
+		pool.shutdown();
+
+		Throwable failure = null;
+		boolean interrupted = false;
+		for (Future<?> future : futures) {
+			while (true) {
+				try {
+					future.get();
+					break;
+				} catch (InterruptedException e) {
+					interrupted = true;
+				} catch (ExecutionException e) {
+					if (failure == null) {
+						failure = e.getCause();
+					} else {
+						failure.addSuppressed(e.getCause());
+					}
+					break;
+				}
+			}
+		}
+		if (interrupted) {
+			Thread.currentThread().interrupt();
+		}
+
+		if (failure instanceof RuntimeException) {
+			throw (RuntimeException) failure;
+		} else if (failure instanceof Error) {
+			throw (Error) failure;
+		} else if (failure != null) {
+			throw new IllegalStateException("A worker failed", failure);
+		}
+	}
+}
@@ -0,0 +1,56 @@
+package jobshop.solvers;
+
+import java.util.Arrays;
+
+/**
+ * A bounded table associating an int to the hash of a ResourceOrder (see ResourceOrder.hash), e.g. its makespan
+ * or the iteration at which a search visited it.
+ * <br>
+ * Each hash has only one slot (the lowest bits of the hash), and a new entry replaces the one in its slot : the
+ * table never grows, and the lookups and insertions are a single memory access.
+ */
+class ZobristTable {
+
+	/** The value returned for a hash that is not in the table */
+	static final int ABSENT = -1;
+
+	/** The hash stored in each slot */
+	private final long[] hashes;
+
+	/** The value stored in each slot, ABSENT if the slot is empty */
+	private final int[] values;
+
+	/** The number of slots minus one, to get the slot of a hash with a mask */
+	private final int mask;
+
+	/**
+	 * Constructor
+	 * @param bits The table has 2^bits slots
+	 */
+	ZobristTable(int bits) {
+		this.hashes = new long[1 << bits];
+		this.values = new int[1 << bits];
+		this.mask = (1 << bits) - 1;
+		Arrays.fill(this.values, ABSENT);
+	}
+
+	/**
+	 * @param hash The hash of a ResourceOrder
+	 * @return The value stored for this hash, or ABSENT if there is none (or if it has been replaced)
+	 */
+	int get(long hash) {
+		int slot = (int) hash & this.mask;
+		return (this.hashes[slot] == hash) ? this.values[slot] : ABSENT;
+	}
+
+	/**
+	 * Stores a value for a hash, replacing the previous entry of its slot
+	 * @param hash The hash of a ResourceOrder
+	 * @param value A non-negative value
+	 */
+	void put(long hash, int value) {
+		int slot = (int) hash & this.mask;
+		this.hashes[slot] = hash;
+		this.values[slot] = value;
+	}
+}
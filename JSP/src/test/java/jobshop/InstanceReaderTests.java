@@ -0,0 +1,99 @@
+package jobshop;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+public class InstanceReaderTests {
+
+    /** The machines and the durations of the 3x3 instance written in the files below */
+    private static final int[][] MACHINES = { { 0, 1, 2 }, { 1, 0, 2 }, { 2, 1, 0 } };
+    private static final int[][] DURATIONS = { { 3, 2, 2 }, { 2, 1, 4 }, { 4, 3, 1 } };
+
+    private static Path write(String content) throws IOException {
+        Path dir = Files.createTempDirectory("jsp");
+        Path path = dir.resolve("instance");
+        Files.write(path, content.getBytes("US-ASCII"));
+        path.toFile().deleteOnExit();
+        dir.toFile().deleteOnExit();
+        return path;
+    }
+
+    private static void assertExpected(Instance pb) {
+        assert pb.numJobs == 3 && pb.numTasks == 3 && pb.numMachines == 3;
+        for (int job = 0; job < 3; job++) {
+            for (int task = 0; task < 3; task++) {
+                assert pb.machine(job, task) == MACHINES[job][task];
+                assert pb.duration(job, task) == DURATIONS[job][task];
+            }
+        }
+    }
+
+    @Test
+    public void testDefaultLayout() throws IOException {
+        Path path = write("# a comment\n"
+                + "3 3 # numJobs numTasks\n"
+                + "0 3 1 2 2 2\n"
+                + "1 2 0 1 2 4\n"
+                + "2 4 1 3 0 1\n");
+        assertExpected(InstanceReader.read(path, false));
+    }
+
+    @Test
+    public void testTaillardWithLabels() throws IOException {
+        Path path = write("Nb of jobs, Nb of Machines, Time seed, Machine seed, Upper bound, Lower bound\r\n"
+                + "3 3 840612802 398197754 13 12\r\n"
+                + "Times\r\n"
+                + "3 2 2\r\n2 1 4\r\n4 3 1\r\n"
+                + "Machines\r\n"
+                + "1 2 3\r\n2 1 3\r\n3 2 1\r\n");
+        assertExpected(InstanceReader.read(path, false));
+
+        // The labels give the order of the matrices
+        path = write("3 3\nMachines\n1 2 3\n2 1 3\n3 2 1\nTimes\n3 2 2\n2 1 4\n4 3 1\n");
+        assertExpected(InstanceReader.read(path, false));
+    }
+
+    @Test
+    public void testTaillardWithoutLabels() throws IOException {
+        Path path = write("3 3 840612802 398197754\n"
+                + "3 2 2\n2 1 4\n4 3 1\n"
+                + "1 2 3\n2 1 3\n3 2 1\n");
+        assertExpected(InstanceReader.read(path, false));
+    }
+
+    @Test
+    public void testCache() throws IOException {
+        Path path = write("3 3\n0 3 1 2 2 2\n1 2 0 1 2 4\n2 4 1 3 0 1\n");
+        Path cache = path.resolveSibling(path.getFileName() + InstanceReader.CACHE_SUFFIX);
+        cache.toFile().deleteOnExit();
+
+        // The first read creates the cache, which is then read as long as the text file is unchanged
+        assertExpected(InstanceReader.read(path, true));
+        assert Files.exists(cache);
+        Instance cached = InstanceReader.readCache(cache, path);
+        assert cached != null;
+        assertExpected(cached);
+        assertExpected(InstanceReader.read(path, true));
+
+        // A machine out of range in the cache invalidates it
+        byte[] bytes = Files.readAllBytes(cache);
+        ByteBuffer.wrap(bytes).putInt(bytes.length - 4 * 18, 7);
+        Files.write(cache, bytes);
+        Files.setLastModifiedTime(cache, Files.getLastModifiedTime(path));
+        assert InstanceReader.readCache(cache, path) == null;
+        assertExpected(InstanceReader.read(path, true));
+        assert InstanceReader.readCache(cache, path) != null;
+
+        // A modified text file invalidates it, even if the cache is more recent
+        Files.write(path, "3 3\n0 3 1 2 2 2\n1 2 0 1 2 4\n2 4 1 3 0 2\n".getBytes("US-ASCII"));
+        Files.setLastModifiedTime(path, FileTime.fromMillis(Files.getLastModifiedTime(path).toMillis() - 60000));
+        assert InstanceReader.readCache(cache, path) == null;
+        Instance pb = InstanceReader.read(path, true);
+        assert pb.duration(2, 2) == 2;
+    }
+}
@@ -0,0 +1,36 @@
+package jobshop;
+
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class LowerBoundsTests {
+
+    @Test
+    public void testBelowBestKnown() throws IOException {
+        for (String name : BestKnownResult.instances) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            int bound = LowerBounds.of(instance);
+            assert bound <= BestKnownResult.of(name) : name + ": " + bound + " > " + BestKnownResult.of(name);
+            assert bound >= LowerBounds.jobBound(instance);
+            assert LowerBounds.oneMachineBound(instance) >= LowerBounds.machineBound(instance);
+        }
+    }
+
+    @Test
+    public void testJackson() {
+        LowerBounds.Jackson jackson = new LowerBounds.Jackson(3);
+
+        // Task 0 runs on [0, 1), is preempted by task 1 (released at 1, longest tail) which ends at 3 (3 + 5 = 8),
+        // then task 2 runs on [3, 5) (5 + 3 = 8) and task 0 ends on [5, 8) (8 + 1 = 9).
+        // Without preemption, the best sequence (1, 2, 0) reaches 10.
+        int[] heads = { 0, 1, 2 };
+        int[] durations = { 4, 2, 2 };
+        int[] tails = { 1, 5, 3 };
+        assert jackson.bound(3, heads, durations, tails) == 9;
+
+        // The machine is idle between the end of task 0 at 2 and the release of task 1 at 5 (5 + 1 + 1 = 7)
+        assert jackson.bound(2, new int[] { 0, 5 }, new int[] { 2, 1 }, new int[] { 0, 1 }) == 7;
+    }
+}
@@ -0,0 +1,36 @@
+package jobshop;
+
+import org.junit.Test;
+
+import java.nio.file.Paths;
+
+public class ScheduleTests {
+
+    /** Job 0 : (machine 0, 3) then (machine 1, 1). Job 1 : (machine 0, 0) then (machine 1, 2). */
+    private static Instance zeroDurationInstance() {
+        Instance pb = new Instance(2, 2, Paths.get("zero"));
+        int[] machines = { 0, 1, 0, 1 };
+        int[] durations = { 3, 1, 0, 2 };
+        System.arraycopy(machines, 0, pb.machines, 0, 4);
+        System.arraycopy(durations, 0, pb.durations, 0, 4);
+        pb.buildIndex();
+        return pb;
+    }
+
+    @Test
+    public void testZeroDuration() {
+        Instance pb = zeroDurationInstance();
+
+        // The task of job 1 on machine 0 is empty : it starts with the task of job 0, or during it
+        Schedule schedule = new Schedule(pb, new int[][] { { 0, 3 }, { 0, 0 } });
+        assert schedule.findViolation() == null : schedule.findViolation();
+        schedule = new Schedule(pb, new int[][] { { 0, 3 }, { 1, 1 } });
+        assert schedule.findViolation() == null : schedule.findViolation();
+        assert schedule.makespan() == 4;
+
+        // The tasks on machine 1 still overlap
+        schedule = new Schedule(pb, new int[][] { { 0, 3 }, { 2, 2 } });
+        assert !schedule.isValid();
+        assert schedule.findViolation().startsWith("machine overlap on machine 1");
+    }
+}
@@ -1,75 +1,141 @@
-package jobshop.encodings;
-
-import jobshop.Instance;
-import jobshop.Result;
-import jobshop.Schedule;
-import jobshop.Solver;
-import jobshop.solvers.BasicSolver;
-import org.junit.Test;
-
-import java.io.IOException;
-import java.nio.file.Paths;
-
-public class EncodingTests {
-
-    @Test
-    public void testJobNumbers() throws IOException {
-        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
-
-        // numéro de jobs : 1 2 2 1 1 2 (cf exercices)
-        JobNumbers enc = new JobNumbers(instance);
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 1;
-        enc.jobs[enc.nextToSet++] = 1;
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 1;
-
-        Schedule sched = enc.toSchedule();
-        // TODO: make it print something meaningful
-        // by implementing the toString() method
-        System.out.println(sched);
-        assert sched.isValid();
-        assert sched.makespan() == 12;
-
-
-
-        // numéro de jobs : 1 1 2 2 1 2
-        enc = new JobNumbers(instance);
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 1;
-        enc.jobs[enc.nextToSet++] = 1;
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 1;
-
-        sched = enc.toSchedule();
-        assert sched.isValid();
-        assert sched.makespan() == 14;
-    }
-
-    @Test
-    public void testBasicSolver() throws IOException {
-        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
-
-        // build a solution that should be equal to the result of BasicSolver
-        JobNumbers enc = new JobNumbers(instance);
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 1;
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 1;
-        enc.jobs[enc.nextToSet++] = 0;
-        enc.jobs[enc.nextToSet++] = 1;
-
-        Schedule sched = enc.toSchedule();
-        assert sched.isValid();
-        assert sched.makespan() == 12;
-
-        Solver solver = new BasicSolver();
-        Result result = solver.solve(instance, System.currentTimeMillis() + 10);
-
-        assert result.schedule.isValid();
-        assert result.schedule.makespan() == sched.makespan(); // should have the same makespan
-    }
-
-}
+package jobshop.encodings;
+
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.Schedule;
+import jobshop.Solver;
+import jobshop.solvers.BasicSolver;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class EncodingTests {
+
+    @Test
+    public void testJobNumbers() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        // numéro de jobs : 1 2 2 1 1 2 (cf exercices)
+        JobNumbers enc = new JobNumbers(instance);
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 1;
+        enc.jobs[enc.nextToSet++] = 1;
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 1;
+
+        Schedule sched = enc.toSchedule();
+        // TODO: make it print something meaningful
+        // by implementing the toString() method
+        System.out.println(sched);
+        assert sched.isValid();
+        assert sched.makespan() == 12;
+
+
+
+        // numéro de jobs : 1 1 2 2 1 2
+        enc = new JobNumbers(instance);
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 1;
+        enc.jobs[enc.nextToSet++] = 1;
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 1;
+
+        sched = enc.toSchedule();
+        assert sched.isValid();
+        assert sched.makespan() == 14;
+    }
+
+    @Test
+    public void testResourceOrder() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        // ordre des ressources (cf exercices)
+        ResourceOrder enc = new ResourceOrder(instance);
+        enc.setTask(0, 0, new Task(0,0));
+        enc.setTask(0, 1, new Task(1,1));
+        enc.setTask(1, 0, new Task(1,0));
+        enc.setTask(1, 1, new Task(0,1));
+        enc.setTask(2, 0, new Task(0,2));
+        enc.setTask(2, 1, new Task(1,2));
+
+        Schedule sched = enc.toSchedule();
+        assert sched.isValid();
+        assert sched.makespan() == 12;
+        assert enc.makespan() == 12;
+
+        // conversion to and from the representation with Task objects
+        ResourceOrder converted = new ResourceOrder(instance, enc.getTasksByMachine());
+        assert converted.getTask(1, 1).equals(new Task(0,1));
+        assert converted.indexOf(new Task(0,1).getTaskID(instance.numTasks)) == 1;
+        assert converted.makespan() == 12;
+        assert new ResourceOrder(sched).makespan() == 12;
+
+        // the copy is independent from the original order
+        ResourceOrder copy = enc.copy();
+        copy.swapTasks(0, 0, 1);
+        assert enc.getTask(0, 0).equals(new Task(0,0));
+        assert copy.getTask(0, 0).equals(new Task(1,1));
+
+        // (1,1) before (0,0) on machine 0 and (0,1) before (1,0) on machine 1 : cyclic dependency
+        copy.swapTasks(1, 0, 1);
+        assert copy.toSchedule() == null;
+        assert copy.makespan() == Integer.MAX_VALUE;
+
+        // undoing the swaps gives back the original order
+        copy.swapTasks(1, 0, 1);
+        copy.swapTasks(0, 0, 1);
+        assert copy.makespan() == 12;
+    }
+
+    @Test
+    public void testScheduleValidity() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        // numéro de jobs : 1 2 2 1 1 2 (cf exercices)
+        int[][] times = new int[][] { {0, 3, 6}, {0, 3, 8} };
+        Schedule sched = new Schedule(instance, times);
+        assert sched.isValid();
+        assert sched.findViolation() == null;
+
+        // the second task of job 0 starts before the end of the first one
+        times[0][1] = 2;
+        sched = new Schedule(instance, times);
+        assert !sched.isValid();
+        assert sched.findViolation().startsWith("job precedence");
+
+        // the last tasks of both jobs are executed at the same time on machine 2
+        times[0][1] = 3;
+        times[1][2] = 7;
+        sched = new Schedule(instance, times);
+        assert !sched.isValid();
+        assert sched.findViolation().startsWith("machine overlap");
+    }
+
+    @Test
+    public void testBasicSolver() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/aaa1"));
+
+        // build a solution that should be equal to the result of BasicSolver
+        JobNumbers enc = new JobNumbers(instance);
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 1;
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 1;
+        enc.jobs[enc.nextToSet++] = 0;
+        enc.jobs[enc.nextToSet++] = 1;
+
+        Schedule sched = enc.toSchedule();
+        assert sched.isValid();
+        assert sched.makespan() == 12;
+
+        Solver solver = new BasicSolver();
+        Result result = solver.solve(instance, System.currentTimeMillis() + 10);
+
+        assert result.schedule.isValid();
+        assert result.schedule.makespan() == sched.makespan(); // should have the same makespan
+    }
+
+}
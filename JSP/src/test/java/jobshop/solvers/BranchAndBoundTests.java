@@ -0,0 +1,34 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class BranchAndBoundTests {
+
+    /** ft06 and la04 are not closed by their lower bound, the tree has to prove their optimum */
+    private static final String[] INSTANCES = { "ft06", "la01", "la04", "la05" };
+
+    @Test
+    public void testProvedOptimal() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            long deadline = System.currentTimeMillis() + 60000;
+            Result result = new BranchAndBoundSolver(2, 50).solve(instance, deadline);
+            assert result.cause == Result.ExitCause.ProvedOptimal : name;
+            assert result.schedule.isValid() : name;
+            assert result.schedule.makespan() == BestKnownResult.of(name) : name;
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testTooManyJobs() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ta71"));
+        assert instance.numJobs > DisjunctivePropagation.MAX_JOBS;
+        new BranchAndBoundSolver(1, 50).solve(instance, System.currentTimeMillis() + 1000);
+    }
+}
@@ -0,0 +1,71 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+public class DisjunctivePropagationTests {
+
+    /** The maximum number of disjunctions fixed in a branch of testUndoRestoresState */
+    private static final int FIXES = 40;
+
+    /** The heads, then the tails, then the fixed disjunctions of the propagation */
+    private static long[] state(DisjunctivePropagation propagation, Instance instance) {
+        int nbTasks = instance.numJobs * instance.numTasks;
+        long[] arcs = propagation.arcs();
+        long[] state = Arrays.copyOf(arcs, 2 * nbTasks + arcs.length);
+        for (int id = 0; id < nbTasks; id++) {
+            state[arcs.length + id] = propagation.head(id);
+            state[arcs.length + nbTasks + id] = propagation.tail(id);
+        }
+        return state;
+    }
+
+    @Test
+    public void testUndoRestoresState() throws IOException {
+        SplittableRandom random = new SplittableRandom(7);
+        for (String name : new String[] { "ft06", "la04", "ft10" }) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            DisjunctivePropagation propagation = new DisjunctivePropagation(instance);
+
+            for (int dive = 0; dive < 100; dive++) {
+                // With the best known makespan as upper bound, the dives end on a failed propagation
+                int bestKnown = BestKnownResult.of(name);
+                propagation.setUpperBound(dive % 2 == 0 ? bestKnown : bestKnown + bestKnown / 5);
+                propagation.reset();
+                if (!propagation.propagate()) {
+                    continue;
+                }
+
+                // A random branch : the state before each fix is restored by undoing back to its mark
+                int[] marks = new int[FIXES];
+                long[][] states = new long[FIXES][];
+                int depth = 0;
+                for (int attempt = 0; attempt < 10 * FIXES && depth < FIXES; attempt++) {
+                    int machine = random.nextInt(instance.numMachines);
+                    int u = random.nextInt(instance.numJobs);
+                    int v = random.nextInt(instance.numJobs);
+                    if (u == v || ((propagation.before(machine, v) | propagation.after(machine, v)) & (1L << u)) != 0) {
+                        continue;
+                    }
+                    states[depth] = state(propagation, instance);
+                    marks[depth] = propagation.mark();
+                    depth++;
+                    if (!propagation.fix(machine, u, v) || !propagation.propagate()) {
+                        break;
+                    }
+                }
+                while (depth > 0) {
+                    depth--;
+                    propagation.undo(marks[depth]);
+                    assert Arrays.equals(state(propagation, instance), states[depth]) : name;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class GifflerThompsonTests {
+
+    /** orb07 has tasks with a zero duration */
+    private static final String[] INSTANCES = { "orb07", "ft06", "la01", "ta01" };
+
+    @Test
+    public void testValidSchedules() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            for (PriorityRule rule : PriorityRule.values()) {
+                Result result = new GifflerThompsonSolver(rule).solve(instance, Long.MAX_VALUE);
+                assert result.schedule.isValid() : name + " " + rule;
+                assert result.schedule.makespan() >= BestKnownResult.of(name) : name + " " + rule;
+            }
+            for (EST_PriorityRule rule : EST_PriorityRule.values()) {
+                Result result = new GifflerThompsonSolver(rule).solve(instance, Long.MAX_VALUE);
+                assert result.schedule.isValid() : name + " " + rule;
+            }
+        }
+    }
+
+    @Test
+    public void testRandomized() throws IOException {
+        SplittableRandom random = new SplittableRandom(11);
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            GifflerThompsonSolver solver = new GifflerThompsonSolver(PriorityRule.LRPT);
+            for (double alpha : new double[] { 0, 0.2, 1 }) {
+                for (int k = 0; k < 20; k++) {
+                    ResourceOrder order = new ResourceOrder(instance);
+                    solver.build(instance, order, random, alpha);
+                    assert order.toSchedule().isValid() : name + " " + alpha;
+                }
+            }
+        }
+    }
+}
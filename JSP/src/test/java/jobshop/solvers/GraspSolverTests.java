@@ -0,0 +1,26 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class GraspSolverTests {
+
+    /** orb07 has tasks with a zero duration */
+    private static final String[] INSTANCES = { "orb07", "ft06", "la01" };
+
+    @Test
+    public void testValidSchedules() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result result = new GraspSolver(PriorityRule.LRPT, 0.2, 2, 0).solve(instance, System.currentTimeMillis() + 200);
+            assert result.schedule.isValid() : name;
+            assert result.schedule.makespan() >= BestKnownResult.of(name) : name;
+            assert result.cause != Result.ExitCause.ProvedOptimal || result.schedule.makespan() <= instance.lowerBound() : name;
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.Schedule;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+
+public class GreedySolverTests {
+
+    private static final String[] INSTANCES = { "aaa1", "ft06", "ft10", "la01", "la16", "ta01" };
+
+    /**
+     * The list-based selection the heap of GreedyBuilder replaced : at each step, the feasable tasks are scanned
+     * for the one with the lowest (starting time if est, key of the rule, job).
+     */
+    private static Schedule listBased(Instance instance, PriorityRule rule, boolean est) {
+        int[] nextStartTimeJobs = new int[instance.numJobs];
+        int[] nextStartTimeMachines = new int[instance.numMachines];
+        ResourceOrder sol = new ResourceOrder(instance);
+
+        ArrayList<Task> feasable = new ArrayList<>();
+        for (int job = 0; job < instance.numJobs; job++) {
+            feasable.add(new Task(job, 0));
+        }
+
+        while (!feasable.isEmpty()) {
+            Task current = null;
+            int minStartTime = Integer.MAX_VALUE;
+            int minKey = Integer.MAX_VALUE;
+            for (Task t : feasable) {
+                int startTime = 0;
+                if (est) {
+                    startTime = Integer.max(nextStartTimeJobs[t.job], nextStartTimeMachines[instance.machine(t.job, t.task)]);
+                }
+                int key = rule.key(instance, t.job, t.task);
+                if (current == null || startTime < minStartTime
+                        || (startTime == minStartTime && (key < minKey || (key == minKey && t.job < current.job)))) {
+                    minStartTime = startTime;
+                    minKey = key;
+                    current = t;
+                }
+            }
+
+            int machine = instance.machine(current.job, current.task);
+            int startTime = Integer.max(nextStartTimeJobs[current.job], nextStartTimeMachines[machine]);
+            int endTime = startTime + instance.duration(current.job, current.task);
+            nextStartTimeJobs[current.job] = endTime;
+            nextStartTimeMachines[machine] = endTime;
+
+            feasable.remove(current);
+            if (current.task + 1 < instance.numTasks) {
+                feasable.add(new Task(current.job, current.task + 1));
+            }
+            sol.setTask(machine, sol.nextFreeSlot[machine]++, current);
+        }
+        return sol.toSchedule();
+    }
+
+    private static void assertSameSchedule(Schedule expected, Schedule actual) {
+        assert actual.isValid();
+        for (int job = 0; job < expected.pb.numJobs; job++) {
+            for (int task = 0; task < expected.pb.numTasks; task++) {
+                assert actual.startTime(job, task) == expected.startTime(job, task);
+            }
+        }
+    }
+
+    @Test
+    public void testSameSchedulesAsListBased() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            for (PriorityRule rule : PriorityRule.values()) {
+                Schedule schedule = new GreedySolver(rule).solve(instance, Long.MAX_VALUE).schedule;
+                assertSameSchedule(listBased(instance, rule, false), schedule);
+            }
+            for (EST_PriorityRule rule : EST_PriorityRule.values()) {
+                Schedule schedule = new GreedySolver(rule).solve(instance, Long.MAX_VALUE).schedule;
+                assertSameSchedule(listBased(instance, rule.rule, true), schedule);
+            }
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package jobshop.solvers;
+
+import jobshop.Instance;
+import jobshop.encodings.ResourceOrder;
+import jobshop.encodings.Task;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+
+public class HeadsTailsTests {
+
+    private static final String[] INSTANCES = { "ft06", "ft10", "la16", "ta01" };
+
+    private static final int SWAPS = 300;
+
+    @Test
+    public void testApplySwapAndEstimate() throws IOException {
+        SplittableRandom random = new SplittableRandom(42);
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            ResourceOrder order = new ResourceOrder(new GreedySolver(EST_PriorityRule.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule);
+            HeadsTails headsTails = new HeadsTails(instance);
+            boolean acyclic = headsTails.compute(order);
+            assert acyclic;
+
+            for (int k = 0; k < SWAPS; k++) {
+                // A random swap of two adjacent tasks of a critical block
+                int nbBlocks = headsTails.criticalBlocks(order);
+                if (nbBlocks == 0) {
+                    break;
+                }
+                int block = random.nextInt(nbBlocks);
+                int machine = headsTails.blockMachine(block);
+                int index = headsTails.blockFirst(block) + random.nextInt(headsTails.blockLast(block) - headsTails.blockFirst(block));
+
+                int estimate = headsTails.estimateSwap(order, machine, index);
+                headsTails.applySwap(order, machine, index);
+
+                // The incremental update gives the heads and tails computed from scratch
+                HeadsTails expected = new HeadsTails(instance);
+                acyclic = expected.compute(order);
+                assert acyclic;
+                assert headsTails.makespan() == expected.makespan();
+                assert headsTails.makespan() == order.toSchedule().makespan();
+                for (int job = 0; job < instance.numJobs; job++) {
+                    for (int task = 0; task < instance.numTasks; task++) {
+                        Task t = new Task(job, task);
+                        assert headsTails.head(t) == expected.head(t);
+                        assert headsTails.tail(t) == expected.tail(t);
+                    }
+                }
+
+                // The estimation is a lower bound of the real makespan
+                assert estimate <= headsTails.makespan();
+            }
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class IslandTabooSolverTests {
+
+    /** orb07 has tasks with a zero duration, la01 is closed by its lower bound */
+    private static final String[] INSTANCES = { "orb07", "ft06", "la01" };
+
+    @Test
+    public void testValidSchedules() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result result = new IslandTabooSolver(3, 12, 100, 0).solve(instance, System.currentTimeMillis() + 300);
+            assert result.schedule.isValid() : name;
+            assert result.schedule.makespan() >= BestKnownResult.of(name) : name;
+            boolean optimal = result.schedule.makespan() <= instance.lowerBound();
+            assert (result.cause == Result.ExitCause.ProvedOptimal) == optimal : name;
+        }
+    }
+}
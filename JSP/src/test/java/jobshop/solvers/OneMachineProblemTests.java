@@ -0,0 +1,74 @@
+package jobshop.solvers;
+
+import org.junit.Test;
+
+import java.util.SplittableRandom;
+
+public class OneMachineProblemTests {
+
+    /** @return The value max(end + tail) of the tasks scheduled as early as possible in the order of sequence */
+    private static int value(int n, int[] heads, int[] durations, int[] tails, int[] sequence) {
+        int time = 0;
+        int value = 0;
+        for (int k = 0; k < n; k++) {
+            int task = sequence[k];
+            time = Math.max(time, heads[task]) + durations[task];
+            value = Math.max(value, time + tails[task]);
+        }
+        return value;
+    }
+
+    /** @return The optimal value, by enumerating all the sequences from position k */
+    private static int bruteForce(int n, int[] heads, int[] durations, int[] tails, int[] sequence, int k) {
+        if (k == n) {
+            return value(n, heads, durations, tails, sequence);
+        }
+        int best = Integer.MAX_VALUE;
+        for (int i = k; i < n; i++) {
+            int tmp = sequence[k];
+            sequence[k] = sequence[i];
+            sequence[i] = tmp;
+            best = Math.min(best, bruteForce(n, heads, durations, tails, sequence, k + 1));
+            sequence[i] = sequence[k];
+            sequence[k] = tmp;
+        }
+        return best;
+    }
+
+    @Test
+    public void testSchrageSuboptimal() {
+        // Schrage runs task 0 on [0, 4) since task 1 is not released, and then task 1 on [4, 6) : 6 + 10 = 16.
+        // Task 0 interferes with task 1 : the branch putting it after task 1 gives task 1 on [1, 3) (3 + 10 = 13)
+        // and task 0 on [3, 7), which is optimal.
+        int[] heads = { 0, 1 };
+        int[] durations = { 4, 2 };
+        int[] tails = { 0, 10 };
+        int[] best = new int[2];
+        int value = new OneMachineProblem(2).solve(2, heads, durations, tails, best);
+        assert value == 13;
+        assert best[0] == 1 && best[1] == 0;
+    }
+
+    @Test
+    public void testRandomAgainstBruteForce() {
+        SplittableRandom random = new SplittableRandom(3);
+        OneMachineProblem problem = new OneMachineProblem(7);
+        int[] heads = new int[7];
+        int[] durations = new int[7];
+        int[] tails = new int[7];
+        int[] best = new int[7];
+        int[] sequence = new int[7];
+        for (int k = 0; k < 500; k++) {
+            int n = 1 + random.nextInt(7);
+            for (int i = 0; i < n; i++) {
+                heads[i] = random.nextInt(30);
+                durations[i] = 1 + random.nextInt(10);
+                tails[i] = random.nextInt(30);
+                sequence[i] = i;
+            }
+            int value = problem.solve(n, heads, durations, tails, best);
+            assert value == bruteForce(n, heads, durations, tails, sequence, 0);
+            assert value == value(n, heads, durations, tails, best);
+        }
+    }
+}
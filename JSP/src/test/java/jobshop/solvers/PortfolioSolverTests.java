@@ -0,0 +1,35 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class PortfolioSolverTests {
+
+    /** orb07 has tasks with a zero duration */
+    private static final String[] INSTANCES = { "orb07", "ft06", "la01" };
+
+    @Test
+    public void testValidSchedules() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            PortfolioSolver solver = new PortfolioSolver(PortfolioSolver.defaultConfigurations(), 2, 200, 0);
+            Result result = solver.solve(instance, System.currentTimeMillis() + 300);
+            assert result.schedule.isValid() : name;
+            assert result.schedule.makespan() >= BestKnownResult.of(name) : name;
+        }
+    }
+
+    @Test
+    public void testDeterministicConfigurationsOnly() throws IOException {
+        // The deterministic configurations are run once : the threads stop before the deadline
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        PortfolioSolver solver = new PortfolioSolver(PortfolioSolver.defaultConfigurations().subList(0, 2), 2, 50, 0);
+        Result result = solver.solve(instance, Long.MAX_VALUE);
+        assert result.schedule.isValid();
+    }
+}
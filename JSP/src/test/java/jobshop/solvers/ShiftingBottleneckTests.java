@@ -0,0 +1,35 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class ShiftingBottleneckTests {
+
+    private static final String[] INSTANCES = { "aaa1", "ft06", "ft10", "la01", "la16", "abz5", "ta01" };
+
+    @Test
+    public void testValidSchedules() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            for (int rounds : new int[] { 0, 3 }) {
+                Result result = new ShiftingBottleneckSolver(rounds).solve(instance, Long.MAX_VALUE);
+                assert result.schedule.isValid() : name;
+                assert result.schedule.makespan() >= BestKnownResult.of(name) : name;
+            }
+        }
+    }
+
+    @Test
+    public void testDeadlineReached() throws IOException {
+        // With a past deadline, the machines are sequenced in a topological order of the graph
+        Instance instance = Instance.fromFile(Paths.get("instances/ta01"));
+        Result result = new ShiftingBottleneckSolver(3).solve(instance, 0);
+        assert result.schedule.isValid();
+        assert result.cause == Result.ExitCause.Timeout;
+    }
+}
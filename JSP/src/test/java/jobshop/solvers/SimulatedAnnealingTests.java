@@ -0,0 +1,47 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+public class SimulatedAnnealingTests {
+
+    private static SimulatedAnnealingSolver annealing(long seed, long maxMoves) {
+        return new SimulatedAnnealingSolver(new GreedySolver(EST_PriorityRule.EST_LRPT), 1.0, 0.05, seed, maxMoves);
+    }
+
+    @Test
+    public void testDeterministicWithMoveBudget() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft06"));
+        Result first = annealing(5, 100000).solve(instance, Long.MAX_VALUE);
+        Result second = annealing(5, 100000).solve(instance, Long.MAX_VALUE);
+
+        assert first.schedule.isValid();
+        assert first.schedule.makespan() >= BestKnownResult.of("ft06");
+        assert first.moves > 0;
+        assert first.moves == second.moves;
+        for (int job = 0; job < instance.numJobs; job++) {
+            for (int task = 0; task < instance.numTasks; task++) {
+                assert first.schedule.startTime(job, task) == second.schedule.startTime(job, task);
+            }
+        }
+    }
+
+    @Test
+    public void testUntilDeadline() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Result result = annealing(0, 0).solve(instance, System.currentTimeMillis() + 300);
+        assert result.schedule.isValid();
+        assert result.moves > 0;
+        assert result.cause == Result.ExitCause.Timeout;
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testZeroTemperature() {
+        new SimulatedAnnealingSolver(new GreedySolver(EST_PriorityRule.EST_LRPT), 0, 0.05, 0);
+    }
+}
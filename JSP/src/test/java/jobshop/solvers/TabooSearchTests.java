@@ -0,0 +1,153 @@
+package jobshop.solvers;
+
+import jobshop.BestKnownResult;
+import jobshop.Instance;
+import jobshop.Result;
+import jobshop.encodings.ResourceOrder;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+
+public class TabooSearchTests {
+
+    /** orb07 has tasks with a zero duration, la01 is closed by its lower bound */
+    private static final String[] INSTANCES = { "ft06", "la01", "orb07" };
+
+    private static ResourceOrder greedy(Instance instance) {
+        return new ResourceOrder(new GreedySolver(EST_PriorityRule.EST_LRPT).solve(instance, Long.MAX_VALUE).schedule);
+    }
+
+    private static void assertSameSchedule(Result expected, Result actual) {
+        Instance instance = expected.instance;
+        for (int job = 0; job < instance.numJobs; job++) {
+            for (int task = 0; task < instance.numTasks; task++) {
+                assert actual.schedule.startTime(job, task) == expected.schedule.startTime(job, task);
+            }
+        }
+    }
+
+    @Test
+    public void testSolvers() throws IOException {
+        for (String name : INSTANCES) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            TabooSolver[] solvers = {
+                    new TabooSolver(1000, 10),
+                    TabooSolver.adaptive(3000, 100, 0),
+                    new TabooSolver(300, 15, 2) };
+            for (TabooSolver solver : solvers) {
+                Result result = solver.solve(instance, System.currentTimeMillis() + 10000);
+                assert result.schedule.isValid() : name;
+                assert result.schedule.makespan() >= BestKnownResult.of(name) : name;
+                boolean optimal = result.schedule.makespan() <= instance.lowerBound();
+                assert (result.cause == Result.ExitCause.ProvedOptimal) == optimal : name;
+            }
+        }
+    }
+
+    @Test
+    public void testAdaptiveDeterministic() throws IOException {
+        // The tenures, the restarts and the kicks only depend on the seed
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        Result first = TabooSolver.adaptive(3000, 100, 3).solve(instance, Long.MAX_VALUE);
+        Result second = TabooSolver.adaptive(3000, 100, 3).solve(instance, Long.MAX_VALUE);
+        assert first.schedule.isValid();
+        assertSameSchedule(first, second);
+    }
+
+    @Test
+    public void testPlainTrajectoryWithoutKicks() throws IOException {
+        // Without restarts, the solver follows the plain taboo trajectory : the cycles (frequent with
+        // this short tenure) are not kicked
+        for (String name : new String[] { "ft10", "la16" }) {
+            Instance instance = Instance.fromFile(Paths.get("instances/" + name));
+            Result result = new TabooSolver(2000, 5).solve(instance, Long.MAX_VALUE);
+            TabooSearch search = new TabooSearch(instance, greedy(instance), 5, null);
+            while (search.iteration() < 2000 && search.bestMakespan() > instance.lowerBound()) {
+                search.step();
+            }
+            assert result.schedule.makespan() == search.bestMakespan() : name;
+            assertSameSchedule(new Result(instance, search.best().toSchedule(), result.cause), result);
+        }
+    }
+
+    @Test
+    public void testRestartsKeepBest() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        int[] tenures = TabooSearch.tenureRange(instance);
+        TabooSearch search = new TabooSearch(instance, greedy(instance), tenures[0], tenures[1], new SplittableRandom(1), null);
+        int bestMakespan = search.bestMakespan();
+        int restarts = 0;
+        for (int k = 0; k < 3000; k++) {
+            boolean improved = search.step();
+            if (search.cycleLength() > 0) {
+                search.perturb(1);
+            }
+            if (search.stagnation() >= 50) {
+                search.restartFromBest(10);
+                restarts++;
+            }
+            // The best solution is never lost, and its makespan is the real one
+            assert search.bestMakespan() <= bestMakespan;
+            assert !improved || search.bestMakespan() < bestMakespan;
+            bestMakespan = search.bestMakespan();
+            assert search.best().makespan() == bestMakespan;
+        }
+        assert restarts > 0;
+        assert search.best().toSchedule().isValid();
+    }
+
+    @Test
+    public void testExactSameMovesWithThreads() throws IOException {
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        ResourceOrder start = greedy(instance);
+        ForkJoinPool single = new ForkJoinPool(1);
+        ForkJoinPool several = new ForkJoinPool(4);
+        try {
+            TabooSearch sequential = new TabooSearch(instance, start, 15, single);
+            TabooSearch parallel = new TabooSearch(instance, start, 15, several);
+            for (int k = 0; k < 300; k++) {
+                boolean improved = sequential.step();
+                boolean parallelImproved = parallel.step();
+                assert parallelImproved == improved;
+                assert parallel.currentMakespan() == sequential.currentMakespan();
+                assert parallel.bestMakespan() == sequential.bestMakespan();
+                assert parallel.cycleLength() == sequential.cycleLength();
+            }
+            assert parallel.best().hash() == sequential.best().hash();
+        } finally {
+            single.shutdown();
+            several.shutdown();
+        }
+    }
+
+    @Test
+    public void testHashAfterSwap() throws IOException {
+        SplittableRandom random = new SplittableRandom(9);
+        Instance instance = Instance.fromFile(Paths.get("instances/ft10"));
+        ResourceOrder order = greedy(instance);
+        for (int k = 0; k < 1000; k++) {
+            int machine = random.nextInt(instance.numMachines);
+            int index1 = random.nextInt(instance.numJobs);
+            int index2 = random.nextInt(instance.numJobs);
+            if (index1 == index2) {
+                continue;
+            }
+            long expected = order.hashAfterSwap(machine, index1, index2);
+            order.swapTasks(machine, index1, index2);
+            assert order.hash() == expected;
+        }
+
+        // The hash maintained through the swaps is the one of the same order built from scratch
+        ResourceOrder rebuilt = new ResourceOrder(instance);
+        for (int machine = 0; machine < instance.numMachines; machine++) {
+            for (int index = 0; index < instance.numJobs; index++) {
+                rebuilt.setTask(machine, index, order.taskAt(machine, index));
+            }
+        }
+        assert rebuilt.hash() == order.hash();
+        assert rebuilt.copy().hash() == order.hash();
+    }
+}
@@ -0,0 +1,32 @@
+package jobshop.solvers;
+
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class WorkersTests {
+
+    @Test
+    public void testAllWorkersRun() {
+        AtomicInteger count = new AtomicInteger();
+        Workers.runAll(Arrays.asList(count::incrementAndGet, count::incrementAndGet, count::incrementAndGet));
+        assert count.get() == 3;
+    }
+
+    @Test
+    public void testFailureReachesCaller() {
+        IllegalStateException failure = new IllegalStateException("worker failure");
+        AtomicInteger count = new AtomicInteger();
+        try {
+            Workers.runAll(Arrays.asList(count::incrementAndGet, () -> {
+                throw failure;
+            }, count::incrementAndGet));
+            throw new AssertionError("the failure of the worker was lost");
+        } catch (IllegalStateException e) {
+            assert e == failure;
+        }
+        // The other workers are still run to the end
+        assert count.get() == 2;
+    }
+}